@@ -0,0 +1,67 @@
+package learning.hotelbackend.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for /rooms/available-rooms against a running server, used to compare the default
+ * platform-thread mode with the "virtual" profile. Start the app once per mode, then run:
+ * <pre>
+ * ./mvnw -P benchmarks -DskipTests verify -Djmh.args="AvailableRoomsLoadBenchmark -jvmArgsAppend -Dhotel.baseUrl=http://localhost:9192"
+ * </pre>
+ * The setup sends one request first; if no server answers at hotel.baseUrl it throws, and JMH reports
+ * the benchmark as failed and goes on with the next one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(256)
+@Fork(1)
+public class AvailableRoomsLoadBenchmark {
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        String baseUrl = System.getProperty("hotel.baseUrl", "http://localhost:9192");
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        request = HttpRequest.newBuilder(URI.create(baseUrl
+                        + "/rooms/available-rooms?checkInDate=2030-03-01&checkOutDate=2030-03-04&roomType="))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            throw new IllegalStateException("No server reachable at " + baseUrl + "; start the application first", e);
+        }
+        if (status / 100 != 2) {
+            throw new IllegalStateException("GET /rooms/available-rooms at " + baseUrl + " answered " + status);
+        }
+    }
+
+    @Benchmark
+    public int availableRooms() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
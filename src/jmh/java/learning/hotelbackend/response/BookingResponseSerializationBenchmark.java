@@ -0,0 +1,124 @@
+package learning.hotelbackend.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON for /bookings/all-bookings and the export, from booking projections to the response stream
+ * (discarded here, so only the serialization itself allocates):
+ * <ul>
+ *   <li>{@code dtoPath}: a BookingResponse and RoomResponse per booking, serialized reflectively (before);</li>
+ *   <li>{@code dtoPathBlackbird}: one RoomResponse per room, serialized with the Blackbird module;</li>
+ *   <li>{@code streamingWriter}: BookingJsonWriter, no response objects and each room rendered once.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingResponseSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int bookings;
+
+    private ObjectMapper plainMapper;
+    private ObjectMapper blackbirdMapper;
+    private List<BookingSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        plainMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        blackbirdMapper = new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        summaries = new ArrayList<>(bookings);
+        LocalDate checkIn = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < bookings; i++) {
+            summaries.add(new Summary((long) i, checkIn.plusDays(i % 365), checkIn.plusDays(i % 365 + 2),
+                    "Guest " + i, "guest" + i + "@example.com", String.valueOf(1_000_000_000L + i),
+                    (long) (i % 50), "Double", BigDecimal.valueOf(120)));
+        }
+    }
+
+    @Benchmark
+    public void dtoPath() throws Exception {
+        List<BookingResponse> responses = new ArrayList<>(summaries.size());
+        for (BookingSummary booking : summaries) {
+            responses.add(toResponse(booking,
+                    new RoomResponse(booking.getRoomId(), booking.getRoomType(), booking.getRoomPrice())));
+        }
+        plainMapper.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+
+    @Benchmark
+    public void dtoPathBlackbird() throws Exception {
+        Map<Long, RoomResponse> rooms = new HashMap<>();
+        List<BookingResponse> responses = new ArrayList<>(summaries.size());
+        for (BookingSummary booking : summaries) {
+            responses.add(toResponse(booking, rooms.computeIfAbsent(booking.getRoomId(),
+                    id -> new RoomResponse(id, booking.getRoomType(), booking.getRoomPrice()))));
+        }
+        blackbirdMapper.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+
+    @Benchmark
+    public void streamingWriter() throws Exception {
+        try (JsonGenerator generator = blackbirdMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            BookingJsonWriter writer = new BookingJsonWriter(blackbirdMapper, generator);
+            generator.writeStartArray();
+            for (BookingSummary booking : summaries) {
+                writer.write(booking);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static BookingResponse toResponse(BookingSummary booking, RoomResponse room) {
+        return new BookingResponse(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                booking.getGuestFullName(), booking.getGuestEmail(), booking.getNumOfAdults(),
+                booking.getNumOfChildren(), booking.getTotalNumOfGuests(), booking.getBookingConfirmationCode(), room);
+    }
+
+    private record Summary(Long id, LocalDate checkInDate, LocalDate checkOutDate, String guestFullName,
+                           String guestEmail, String bookingConfirmationCode, Long roomId, String roomType,
+                           BigDecimal roomPrice) implements BookingSummary {
+        public Long getId() { return id; }
+        public LocalDate getCheckInDate() { return checkInDate; }
+        public LocalDate getCheckOutDate() { return checkOutDate; }
+        public String getGuestFullName() { return guestFullName; }
+        public String getGuestEmail() { return guestEmail; }
+        public int getNumOfAdults() { return 2; }
+        public int getNumOfChildren() { return 1; }
+        public int getTotalNumOfGuests() { return 3; }
+        public String getBookingConfirmationCode() { return bookingConfirmationCode; }
+        public Long getRoomId() { return roomId; }
+        public String getRoomType() { return roomType; }
+        public BigDecimal getRoomPrice() { return roomPrice; }
+    }
+}
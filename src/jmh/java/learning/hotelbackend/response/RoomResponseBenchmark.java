@@ -0,0 +1,69 @@
+package learning.hotelbackend.response;
+
+import org.apache.tomcat.util.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building one {@link RoomResponse}: the booking list it carries, plus the photo either as
+ * a URL and hash (current) or as the Base64 string rooms used to embed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomResponseBenchmark {
+    private static final String PHOTO_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Param({"10", "1000", "100000"})
+    public int bookingsPerRoom;
+
+    // A typical compressed room photo.
+    @Param({"262144"})
+    public int photoBytes;
+
+    private byte[] photo;
+    private List<BookingResponse> bookings;
+
+    @Setup
+    public void setUp() {
+        photo = new byte[photoBytes];
+        ThreadLocalRandom.current().nextBytes(photo);
+        bookings = new ArrayList<>(bookingsPerRoom);
+        LocalDate checkIn = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < bookingsPerRoom; i++) {
+            bookings.add(new BookingResponse((long) i, checkIn.plusDays(3L * i), checkIn.plusDays(3L * i + 2),
+                    String.valueOf(1_000_000_000L + i)));
+        }
+    }
+
+    @Benchmark
+    public RoomResponse withPhotoUrl() {
+        return new RoomResponse(1L, "Double", BigDecimal.valueOf(120), !bookings.isEmpty(),
+                "/rooms/room/1/photo?v=" + PHOTO_HASH.substring(0, 16), PHOTO_HASH, new ArrayList<>(bookings));
+    }
+
+    @Benchmark
+    public RoomResponse withBase64Photo() {
+        return new RoomResponse(1L, "Double", BigDecimal.valueOf(120), !bookings.isEmpty(),
+                Base64.encodeBase64String(photo), PHOTO_HASH, new ArrayList<>(bookings));
+    }
+}
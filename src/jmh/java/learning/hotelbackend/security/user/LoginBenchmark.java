@@ -0,0 +1,62 @@
+package learning.hotelbackend.security.user;
+
+import learning.hotelbackend.security.WebSecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second on one core: the DaoAuthenticationProvider with the application's password
+ * encoder at each BCrypt cost, the user lookup stubbed out. Size hotel.security.login.threads and
+ * the queue from these figures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(1)
+@Fork(1)
+public class LoginBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private DaoAuthenticationProvider provider;
+    private Authentication login;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder encoder = new WebSecurityConfig(null, null, null).passwordEncoder(strength);
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        HotelUserDetails user = new HotelUserDetails(42L, "guest@example.com", encoder.encode(PASSWORD), authorities);
+        provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(email -> user);
+        provider.setPasswordEncoder(encoder);
+        login = UsernamePasswordAuthenticationToken.unauthenticated("guest@example.com", PASSWORD);
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return provider.authenticate(login);
+    }
+}
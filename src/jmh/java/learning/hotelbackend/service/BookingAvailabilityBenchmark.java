@@ -0,0 +1,68 @@
+package learning.hotelbackend.service;
+
+import learning.hotelbackend.model.BookedRoom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap check of {@link BookingService#roomIsAvailable} against a room's booking history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingAvailabilityBenchmark {
+    private static final LocalDate FIRST_STAY = LocalDate.of(2000, 1, 1);
+
+    @Param({"10", "1000", "100000"})
+    public int bookingsPerRoom;
+
+    private List<BookedRoom> existingBookings;
+    private BookedRoom futureRequest;
+    private BookedRoom conflictingRequest;
+
+    @Setup
+    public void setUp() {
+        existingBookings = new ArrayList<>(bookingsPerRoom);
+        for (int i = 0; i < bookingsPerRoom; i++) {
+            existingBookings.add(booking(FIRST_STAY.plusDays(3L * i), FIRST_STAY.plusDays(3L * i + 2)));
+        }
+        LocalDate afterHistory = FIRST_STAY.plusDays(3L * bookingsPerRoom + 10);
+        futureRequest = booking(afterHistory, afterHistory.plusDays(2));
+        LocalDate lastStay = FIRST_STAY.plusDays(3L * (bookingsPerRoom - 1));
+        conflictingRequest = booking(lastStay, lastStay.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean availableAfterFullHistory() {
+        return BookingService.roomIsAvailable(futureRequest, existingBookings);
+    }
+
+    @Benchmark
+    public boolean conflictWithLatestStay() {
+        return BookingService.roomIsAvailable(conflictingRequest, existingBookings);
+    }
+
+    private static BookedRoom booking(LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        return booking;
+    }
+}
@@ -0,0 +1,54 @@
+package learning.hotelbackend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ConfirmationCodeGenerator}: id allocation alone (contended by all benchmark
+ * threads), a full id-plus-code allocation as done per booking, and decoding a code for a lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ConfirmationCodeBenchmark {
+    private ConfirmationCodeGenerator generator;
+    private String code;
+
+    @Setup
+    public void setUp() {
+        generator = new ConfirmationCodeGenerator(
+                1, "benchmark-confirmation-code-secret".getBytes(StandardCharsets.UTF_8), System::currentTimeMillis);
+        code = generator.encode(generator.nextId());
+    }
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String nextCode() {
+        return generator.encode(generator.nextId());
+    }
+
+    @Benchmark
+    public Long decode() {
+        return generator.decode(code).orElseThrow();
+    }
+}
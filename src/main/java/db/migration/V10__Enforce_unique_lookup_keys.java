@@ -0,0 +1,63 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Makes the confirmation code, user email and role name lookup indexes of V2 unique. Databases created
+ * by ddl-auto=update never enforced this, so existing rows are checked first: if any value is stored
+ * twice, the migration stops and names the duplicates, which have to be resolved by hand before retrying.
+ */
+public class V10__Enforce_unique_lookup_keys extends BaseJavaMigration {
+    private static final int SHOWN_DUPLICATES = 10;
+
+    private static final String[][] KEYS = {
+            // table, column, index to replace, unique index
+            {"booked_room", "confirmation_code", "idx_booked_room_confirmation_code", "uk_booked_room_confirmation_code"},
+            {"user", "email", "idx_user_email", "uk_user_email"},
+            {"role", "name", "idx_role_name", "uk_role_name"},
+    };
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            List<String> problems = new ArrayList<>();
+            for (String[] key : KEYS) {
+                List<String> duplicates = findDuplicates(statement, key[0], key[1]);
+                if (!duplicates.isEmpty()) {
+                    problems.add(key[0] + "." + key[1] + " " + duplicates);
+                }
+            }
+            if (!problems.isEmpty()) {
+                throw new FlywayException("Cannot make lookup keys unique; these values are stored more than once"
+                        + " (up to " + SHOWN_DUPLICATES + " shown per column): " + String.join("; ", problems)
+                        + ". Remove or change the duplicate rows and run the migration again.");
+            }
+            for (String[] key : KEYS) {
+                statement.execute("drop index " + key[2] + " on " + key[0]);
+                statement.execute("create unique index " + key[3] + " on " + key[0] + " (" + key[1] + ")");
+            }
+        }
+    }
+
+    private static List<String> findDuplicates(Statement statement, String table, String column) throws SQLException {
+        List<String> duplicates = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery("select " + column + " from " + table
+                + " where " + column + " is not null group by " + column
+                + " having count(*) > 1 order by " + column + " limit " + SHOWN_DUPLICATES)) {
+            while (resultSet.next()) {
+                duplicates.add(resultSet.getString(1));
+            }
+        }
+        return duplicates;
+    }
+}
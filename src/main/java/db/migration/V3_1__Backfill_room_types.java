@@ -0,0 +1,83 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Creates a room_type row for every distinct room name stored before V3 and points the rooms at it.
+ * Names are normalized the way RoomTypeCatalog does it (trimmed, whitespace runs collapsed, matched
+ * case-insensitively), which MySQL and H2 cannot express with the same regular expression in SQL.
+ * The rules are copied here rather than called, so later changes to the catalog do not alter this migration.
+ */
+public class V3_1__Backfill_room_types extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        List<String> storedNames = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "select distinct room_type from room where room_type is not null order by room_type")) {
+            while (resultSet.next()) {
+                storedNames.add(resultSet.getString(1));
+            }
+        }
+
+        // The first spelling of a type, in name order, becomes its display name.
+        Map<String, String> namesByKey = new LinkedHashMap<>();
+        for (String storedName : storedNames) {
+            String normalized = normalize(storedName);
+            if (!normalized.isEmpty()) {
+                namesByKey.putIfAbsent(key(normalized), normalized);
+            }
+        }
+
+        Map<String, Integer> idsByKey = new LinkedHashMap<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into room_type (name) values (?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (Map.Entry<String, String> type : namesByKey.entrySet()) {
+                insert.setString(1, type.getValue());
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    idsByKey.put(type.getKey(), keys.getInt(1));
+                }
+            }
+        }
+
+        try (PreparedStatement update = connection.prepareStatement(
+                "update room set room_type_id = ?, room_type = ? where room_type = ?")) {
+            for (String storedName : storedNames) {
+                String normalized = normalize(storedName);
+                if (normalized.isEmpty()) {
+                    continue;
+                }
+                String key = key(normalized);
+                update.setInt(1, idsByKey.get(key));
+                update.setString(2, namesByKey.get(key));
+                update.setString(3, storedName);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ");
+    }
+
+    private static String key(String normalizedName) {
+        return normalizedName.toLowerCase(Locale.ROOT);
+    }
+}
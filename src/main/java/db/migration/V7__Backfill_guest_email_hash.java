@@ -0,0 +1,62 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Fills booked_room.guest_email_hash for bookings stored before V6. The hash is SHA-256 based, which
+ * MySQL and H2 cannot compute alike in SQL, so it is computed here. The function is a copy of
+ * BookedRoom.guestEmailHash rather than a call, so later changes to the entity do not alter this migration.
+ * Rows are walked by booking id in batches, so the table is never read into memory at once.
+ */
+public class V7__Backfill_guest_email_hash extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "select booking_id, guest_email from booked_room " +
+                        " where booking_id > ? and guest_email is not null order by booking_id limit " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "update booked_room set guest_email_hash = ? where booking_id = ?")) {
+            long lastSeenId = Long.MIN_VALUE;
+            int rows;
+            do {
+                rows = 0;
+                select.setLong(1, lastSeenId);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastSeenId = resultSet.getLong(1);
+                        update.setLong(1, guestEmailHash(resultSet.getString(2)));
+                        update.setLong(2, lastSeenId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                update.executeBatch();
+            } while (rows == BATCH_SIZE);
+        }
+    }
+
+    // First 63 bits of the SHA-256 of the trimmed, lower-cased address.
+    private static long guestEmailHash(String email) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong() >>> 1;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
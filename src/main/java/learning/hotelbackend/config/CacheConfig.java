@@ -0,0 +1,12 @@
+package learning.hotelbackend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Cache names and the Caffeine spec live in application.properties (spring.cache.*).
+// Cache advice wraps the transaction advice, so @CacheEvict on a @Transactional method runs after the commit.
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+}
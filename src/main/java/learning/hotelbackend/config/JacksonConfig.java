@@ -0,0 +1,16 @@
+package learning.hotelbackend.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Module beans are registered on Spring Boot's ObjectMapper, which the controllers and security share.
+@Configuration
+public class JacksonConfig {
+
+    // Replaces reflective getter calls with generated lambdas when serializing response beans.
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,10 @@
+package learning.hotelbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Runs the @Scheduled background jobs (booking event dispatch and purge).
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -6,32 +6,33 @@ import learning.hotelbackend.model.User;
 import learning.hotelbackend.request.LoginRequest;
 import learning.hotelbackend.response.JwtResponse;
 import learning.hotelbackend.security.jwt.JwtUtils;
-import learning.hotelbackend.security.user.HotelUserDetails;
+import learning.hotelbackend.security.user.LoginService;
 import learning.hotelbackend.service.IUserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
+    private static final String LOGIN_RETRY_AFTER_SECONDS = "1";
+
     private final IUserService userService;
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final JwtUtils jwtUtils;
 
     @PostMapping("/register-user")
@@ -45,21 +46,26 @@ public class AuthController {
         }
     }
 
+    // Completes on the login pool, so the Tomcat thread is released while BCrypt runs. A failed login
+    // ends in the 401 of JwtAuthEntryPoint; a saturated login pool in 429.
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest request){
-        Authentication authentication =
-                authenticationManager
-                        .authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtTokenForUser(authentication);
-        HotelUserDetails userDetails = (HotelUserDetails) authentication.getPrincipal();
-        List<String> roles = userDetails.getAuthorities()
-                .stream()
-                .map(GrantedAuthority::getAuthority).toList();
-        return ResponseEntity.ok(new JwtResponse(
-                userDetails.getId(),
-                userDetails.getEmail(),
-                jwt,
-                roles));
+    public CompletableFuture<ResponseEntity<JwtResponse>> authenticateUser(@Valid @RequestBody LoginRequest request){
+        try {
+            return loginService.authenticate(request.getEmail(), request.getPassword()).thenApply(userDetails -> {
+                List<String> roles = userDetails.getAuthorities()
+                        .stream()
+                        .map(GrantedAuthority::getAuthority).toList();
+                String jwt = jwtUtils.generateJwtTokenForUser(userDetails, roles);
+                return ResponseEntity.ok(new JwtResponse(
+                        userDetails.getId(),
+                        userDetails.getEmail(),
+                        jwt,
+                        roles));
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, LOGIN_RETRY_AFTER_SECONDS)
+                    .build());
+        }
     }
 }
@@ -3,19 +3,34 @@ package learning.hotelbackend.controller;
 import learning.hotelbackend.exception.InvalidBookingRequestException;
 import learning.hotelbackend.exception.ResourceNotFoundException;
 import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.BulkItemResult;
 import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import learning.hotelbackend.request.BulkBookingRequest;
+import learning.hotelbackend.response.BookingJsonWriter;
 import learning.hotelbackend.response.BookingResponse;
 import learning.hotelbackend.response.RoomResponse;
 import learning.hotelbackend.service.IBookingService;
 import learning.hotelbackend.service.IRoomService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 
@@ -23,17 +38,55 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/bookings")
 public class BookingController {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final IBookingService bookingService;
     private final IRoomService roomService; // Kept for other potential uses
+    private final ObjectMapper objectMapper;
+
+    @Value("${hotel.bulk.max-items:1000}")
+    private int maxBulkItems;
 
     @GetMapping("/all-bookings")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        List<BookedRoom> bookings = bookingService.getAllBookings();
+    public ResponseEntity<List<BookingResponse>> getAllBookings(@RequestParam(required = false) Long afterId,
+                                                                @RequestParam(required = false) Integer limit) {
+        List<BookedRoom> bookings = limit == null
+                ? bookingService.getAllBookings()
+                : bookingService.getBookings(afterId, limit);
+        // Bookings of the same room share one RoomResponse.
+        Map<Long, RoomResponse> rooms = new HashMap<>();
         List<BookingResponse> bookingResponses = bookings.stream()
-                .map(this::getBookingResponse)
+                .map(booking -> getBookingResponse(booking, rooms))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(bookingResponses);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (limit != null && !bookings.isEmpty()) {
+            response.header(PaginationHeaders.NEXT_CURSOR,
+                    String.valueOf(bookings.get(bookings.size() - 1).getBookingId()));
+        }
+        return response.body(bookingResponses);
+    }
+
+    // Writes the whole booking history as a JSON array, one booking at a time, in constant heap
+    // (plus one rendered room per distinct room), without building response objects.
+    @GetMapping(value = "/all-bookings/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllBookings() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                BookingJsonWriter writer = new BookingJsonWriter(objectMapper, generator);
+                generator.writeStartArray();
+                bookingService.exportAllBookings(booking -> {
+                    try {
+                        writer.write(booking);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok(body);
     }
 
     @PostMapping("/room/{roomId}/booking")
@@ -48,22 +101,39 @@ public class BookingController {
         }
     }
 
+    // Group reservations: all bookings are checked and inserted in one transaction, one result per booking.
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<BulkItemResult>> saveBookings(@RequestBody List<BulkBookingRequest> bookingRequests) {
+        if (bookingRequests.size() > maxBulkItems) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bookingService.saveBookings(bookingRequests));
+    }
+
     @GetMapping("/confirmation/{confirmationCode}")
     public ResponseEntity<?> getBookingByConfirmationCode(@PathVariable String confirmationCode) {
         try {
             BookedRoom booking = bookingService.findByBookingConfirmationCode(confirmationCode);
-            BookingResponse bookingResponse = getBookingResponse(booking);
+            BookingResponse bookingResponse = getBookingResponse(booking, new HashMap<>());
             return ResponseEntity.ok(bookingResponse);
         } catch (ResourceNotFoundException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
         }
     }
 
+    // Upcoming stays first. Without "size" every booking is returned; with it, page "page" (from 0) of that size.
     @GetMapping("/user/{email}/bookings")
-    public ResponseEntity<List<BookingResponse>> getBookingsByUserEmail(@PathVariable String email) {
-        List<BookedRoom> bookings = bookingService.getBookingsByUserEmail(email);
-        List<BookingResponse> bookingResponses = bookings.stream()
-                .map(this::getBookingResponse)
+    public ResponseEntity<List<BookingResponse>> getBookingsByUserEmail(@PathVariable String email,
+                                                                        @RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(required = false) Integer size) {
+        if (page < 0 || (size != null && (size < 1 || size > MAX_PAGE_SIZE))) {
+            return ResponseEntity.badRequest().build();
+        }
+        Pageable pageable = size == null ? Pageable.unpaged() : PageRequest.of(page, size);
+        Map<Long, RoomResponse> rooms = new HashMap<>();
+        List<BookingResponse> bookingResponses = bookingService.getBookingsByUserEmail(email, pageable).stream()
+                .map(booking -> toBookingResponse(booking, rooms))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(bookingResponses);
     }
@@ -73,14 +143,14 @@ public class BookingController {
         bookingService.cancelBooking(bookingId);
     }
 
-    private BookingResponse getBookingResponse(BookedRoom booking) {
+    private BookingResponse getBookingResponse(BookedRoom booking, Map<Long, RoomResponse> rooms) {
         // 1. CRITICAL FIX: Use the existing Room object instead of re-fetching.
         // This solves the N+1 query problem.
         Room theRoom = booking.getRoom();
-        RoomResponse room = new RoomResponse(
-                theRoom.getId(),
+        RoomResponse room = rooms.computeIfAbsent(theRoom.getId(), id -> new RoomResponse(
+                id,
                 theRoom.getRoomType(),
-                theRoom.getRoomPrice());
+                theRoom.getRoomPrice()));
 
         return new BookingResponse(
                 booking.getBookingId(),
@@ -94,4 +164,19 @@ public class BookingController {
                 booking.getBookingConfirmationCode(),
                 room);
     }
+
+    private BookingResponse toBookingResponse(BookingSummary booking, Map<Long, RoomResponse> rooms) {
+        return new BookingResponse(
+                booking.getId(),
+                booking.getCheckInDate(),
+                booking.getCheckOutDate(),
+                booking.getGuestFullName(),
+                booking.getGuestEmail(),
+                booking.getNumOfAdults(),
+                booking.getNumOfChildren(),
+                booking.getTotalNumOfGuests(),
+                booking.getBookingConfirmationCode(),
+                rooms.computeIfAbsent(booking.getRoomId(),
+                        id -> new RoomResponse(id, booking.getRoomType(), booking.getRoomPrice())));
+    }
 }
\ No newline at end of file
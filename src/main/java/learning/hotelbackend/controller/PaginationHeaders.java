@@ -0,0 +1,10 @@
+package learning.hotelbackend.controller;
+
+// Response headers shared by the keyset-paginated listings.
+final class PaginationHeaders {
+    // Id of the last item of a page; passed back as "afterId" to fetch the next page.
+    static final String NEXT_CURSOR = "X-Next-After-Id";
+
+    private PaginationHeaders() {
+    }
+}
@@ -0,0 +1,64 @@
+package learning.hotelbackend.controller;
+
+import learning.hotelbackend.model.DailyOccupancy;
+import learning.hotelbackend.model.OccupancySummary;
+import learning.hotelbackend.service.OccupancyRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Occupancy and revenue reports, answered from OccupancyRollup instead of the booking table.
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/reports")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class ReportController {
+    private static final long MAX_REPORT_DAYS = 3660;
+
+    private final OccupancyRollup occupancyRollup;
+
+    @GetMapping("/occupancy/daily")
+    public ResponseEntity<List<DailyOccupancy>> getDailyOccupancy(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String roomType) {
+        if (!isValidRange(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(occupancyRollup.getDailyOccupancy(from, to, roomType));
+    }
+
+    @GetMapping("/occupancy/summary")
+    public ResponseEntity<List<OccupancySummary>> getOccupancySummary(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String roomType) {
+        if (!isValidRange(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(occupancyRollup.getSummary(from, to, roomType));
+    }
+
+    @PostMapping("/occupancy/rebuild")
+    public ResponseEntity<String> rebuildOccupancy() {
+        if (!occupancyRollup.rebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("A rebuild is already running");
+        }
+        return ResponseEntity.ok("Occupancy rollup rebuilt");
+    }
+
+    private static boolean isValidRange(LocalDate from, LocalDate to) {
+        return !to.isBefore(from) && ChronoUnit.DAYS.between(from, to) <= MAX_REPORT_DAYS;
+    }
+}
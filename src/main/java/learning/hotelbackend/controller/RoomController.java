@@ -1,35 +1,63 @@
 package learning.hotelbackend.controller;
+import learning.hotelbackend.model.BulkItemResult;
 import learning.hotelbackend.model.Room;
+import learning.hotelbackend.model.RoomMetadata;
 import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.request.RoomImportRequest;
 import learning.hotelbackend.response.BookingResponse;
 import learning.hotelbackend.response.RoomResponse;
 import learning.hotelbackend.service.IBookingService;
 import learning.hotelbackend.service.IRoomService;
-import learning.hotelbackend.exception.PhotoRetrievalException;
+import learning.hotelbackend.service.CatalogVersion;
+import learning.hotelbackend.storage.PhotoVariant;
 import learning.hotelbackend.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.apache.tomcat.util.codec.binary.Base64;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLConnection;
 import java.math.BigDecimal;
-import java.sql.Blob;
-import java.sql.SQLException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/rooms")
 public class RoomController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final IRoomService roomService;
     private final IBookingService bookingService;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+
+    @Value("${hotel.bulk.max-items:1000}")
+    private int maxBulkItems;
 
     @PostMapping("/add/new-room")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -37,24 +65,72 @@ public class RoomController {
             @RequestParam("photo") MultipartFile photo,
             @RequestParam("roomType") String roomType,
             @RequestParam("roomPrice") BigDecimal roomPrice) {
+        if (roomType.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
         Room savedRoom = roomService.addNewRoom(photo, roomType, roomPrice);
         RoomResponse response = new RoomResponse(savedRoom.getId(), savedRoom.getRoomType(), savedRoom.getRoomPrice());
         return ResponseEntity.ok(response);
     }
 
+    // Onboarding: many rooms (without photos) in one request and one transaction, one result per room.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<BulkItemResult>> addRooms(@RequestBody List<RoomImportRequest> rooms) {
+        if (rooms.size() > maxBulkItems) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(roomService.addRooms(rooms));
+    }
+
+    // The same as a CSV (roomType,roomPrice) or NDJSON upload, read line by line.
+    @PostMapping(value = "/bulk", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> importRooms(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                         HttpServletRequest request) throws IOException {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        List<RoomImportRequest> rooms;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset))) {
+            rooms = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    ? RoomImportParser.parseNdjson(reader, objectMapper, maxBulkItems)
+                    : RoomImportParser.parseCsv(reader, maxBulkItems);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.ok(roomService.addRooms(rooms));
+    }
+
+    // With "prefix", only the types whose name starts with it (case-insensitive), for type-ahead search.
     @GetMapping("/room/types")
-    public List<String> getRoomTypes() {
-        return roomService.getAllRoomTypes();
+    public ResponseEntity<List<String>> getRoomTypes(@RequestParam(required = false) String prefix,
+                                                     WebRequest webRequest) {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return catalogResponse(eTag)
+                .body(prefix == null ? roomService.getAllRoomTypes() : roomService.getRoomTypesByPrefix(prefix));
     }
 
+    // Without "limit" the full list is returned; with it, pages are walked by passing the
+    // X-Next-After-Id header of one page as "afterId" of the next.
     @GetMapping("/all-rooms")
-    public ResponseEntity<List<RoomResponse>> getAllRooms() {
-        List<Room> rooms = roomService.getAllRooms();
-        // 1. CRITICAL FIX: Use a stream and the efficient helper method to avoid N+1 queries.
-        List<RoomResponse> roomResponses = rooms.stream()
-                .map(this::getRoomResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(roomResponses);
+    public ResponseEntity<List<RoomResponse>> getAllRooms(@RequestParam(required = false) Long afterId,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          WebRequest webRequest) {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        if (limit == null) {
+            return catalogResponse(eTag).body(getRoomResponses(roomService.getAllRooms()));
+        }
+        List<RoomMetadata> rooms = roomService.getRooms(afterId, limit);
+        ResponseEntity.BodyBuilder response = catalogResponse(eTag);
+        if (!rooms.isEmpty()) {
+            response.header(PaginationHeaders.NEXT_CURSOR, String.valueOf(rooms.get(rooms.size() - 1).id()));
+        }
+        return response.body(getRoomResponses(rooms));
     }
 
     @DeleteMapping("/delete/room/{roomId}")
@@ -69,21 +145,82 @@ public class RoomController {
     public ResponseEntity<RoomResponse> updateRoom(@PathVariable Long roomId,
                                                    @RequestParam(required = false) String roomType,
                                                    @RequestParam(required = false) BigDecimal roomPrice,
-                                                   @RequestParam(required = false) MultipartFile photo) throws IOException {
-        // 2. CORRECTED LOGIC: Prepare photo bytes and let the service handle the update.
-        byte[] photoBytes = (photo != null && !photo.isEmpty()) ? photo.getBytes() : null;
-        Room theRoom = roomService.updateRoom(roomId, roomType, roomPrice, photoBytes);
-        RoomResponse roomResponse = getRoomResponse(theRoom);
+                                                   @RequestParam(required = false) MultipartFile photo) {
+        // 2. CORRECTED LOGIC: Let the service stream the photo into storage and handle the update.
+        Room theRoom = roomService.updateRoom(roomId, roomType, roomPrice, photo);
+        RoomResponse roomResponse = getRoomResponse(RoomMetadata.of(theRoom),
+                bookingService.getAllBookingsByRoomId(roomId), PhotoVariant.FULL);
         return ResponseEntity.ok(roomResponse);
     }
 
     @GetMapping("/room/{roomId}")
-    public ResponseEntity<RoomResponse> getRoomById(@PathVariable Long roomId) {
+    public ResponseEntity<RoomResponse> getRoomById(@PathVariable Long roomId, WebRequest webRequest) {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         // 3. CORRECTED LOGIC: Return the response directly, not wrapped in another Optional.
-        Room theRoom = roomService.getRoomById(roomId)
+        RoomMetadata theRoom = roomService.getRoomMetadata(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
-        RoomResponse roomResponse = getRoomResponse(theRoom);
-        return ResponseEntity.ok(roomResponse);
+        RoomResponse roomResponse =
+                getRoomResponse(theRoom, bookingService.getAllBookingsByRoomId(roomId), PhotoVariant.FULL);
+        return catalogResponse(eTag).body(roomResponse);
+    }
+
+    // "size" selects a downscaled variant (thumbnail, card, full); without it the original upload is served.
+    @GetMapping("/room/{roomId}/photo")
+    public ResponseEntity<Resource> getRoomPhoto(@PathVariable Long roomId,
+                                                 @RequestParam(required = false) String size,
+                                                 WebRequest webRequest) throws IOException {
+        PhotoVariant variant = null;
+        if (size != null) {
+            variant = PhotoVariant.fromKey(size).orElse(null);
+            if (variant == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        Room theRoom = roomService.getRoomWithPhotoMetadata(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
+        if (theRoom.getPhotoHash() == null) {
+            // Still in room_photo until the background migration reaches it: served as stored, uncached.
+            Resource legacyPhoto = roomService.loadLegacyPhoto(roomId).orElse(null);
+            if (legacyPhoto == null) {
+                return ResponseEntity.notFound().build();
+            }
+            String contentType = URLConnection.guessContentTypeFromStream(legacyPhoto.getInputStream());
+            return ResponseEntity.ok()
+                    .contentType(contentType != null ? MediaType.parseMediaType(contentType) : MediaType.IMAGE_JPEG)
+                    .cacheControl(CacheControl.noCache())
+                    .body(legacyPhoto);
+        }
+        Resource photo = variant != null
+                ? roomService.findPhotoVariant(theRoom.getPhotoHash(), variant).orElse(null)
+                : null;
+        boolean isVariant = photo != null;
+        if (!isVariant) {
+            photo = roomService.loadPhoto(theRoom.getPhotoHash());
+        }
+        String eTag = "\"" + theRoom.getPhotoHash() + (isVariant ? "-" + variant.key() : "") + "\"";
+        long lastModified = theRoom.getPhotoUpdatedAt().toEpochMilli();
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+        if (!photo.exists()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Photo URLs carry the hash as a version, so a given URL never changes content. The exception is
+        // a variant that is not rendered yet: the original stands in, and must not be cached as the variant.
+        CacheControl cacheControl = variant != null && !isVariant
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic();
+        // The Resource body is streamed by the message converter, and Range requests get 206 partial content.
+        return ResponseEntity.ok()
+                .contentType(isVariant ? MediaType.IMAGE_JPEG : MediaType.parseMediaType(theRoom.getPhotoContentType()))
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .body(photo);
     }
 
     @GetMapping("/available-rooms")
@@ -91,11 +228,8 @@ public class RoomController {
             @RequestParam("checkInDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
             @RequestParam("checkOutDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
             @RequestParam("roomType") String roomType) {
-        List<Room> availableRooms = roomService.getAvailableRooms(checkInDate, checkOutDate, roomType);
-        // 1. CRITICAL FIX: Use a stream here as well to avoid N+1 queries.
-        List<RoomResponse> roomResponses = availableRooms.stream()
-                .map(this::getRoomResponse)
-                .collect(Collectors.toList());
+        List<RoomMetadata> availableRooms = roomService.getAvailableRooms(checkInDate, checkOutDate, roomType);
+        List<RoomResponse> roomResponses = getRoomResponses(availableRooms);
 
         if (roomResponses.isEmpty()) {
             return ResponseEntity.noContent().build();
@@ -104,10 +238,55 @@ public class RoomController {
         }
     }
 
-    // This single, efficient helper method now serves all other endpoints.
-    private RoomResponse getRoomResponse(Room room) {
-        // Get bookings from the already-fetched room object.
-        List<BookedRoom> bookings = bookingService.getAllBookingsByRoomId(room.getId());
+    @GetMapping("/available-rooms/consistency-check")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<String> checkAvailabilityConsistency(
+            @RequestParam("checkInDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam("checkOutDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @RequestParam("roomType") String roomType) {
+        if (roomService.isAvailabilityIndexConsistent(checkInDate, checkOutDate, roomType)) {
+            return ResponseEntity.ok("Availability index matches the database");
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Availability index differs from the database");
+    }
+
+    // Hit/miss/eviction counters of the room caches, for sizing them.
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof CaffeineCache cache) {
+                CacheStats cacheStats = cache.getNativeCache().stats();
+                stats.put(cacheName, Map.of(
+                        "size", cache.getNativeCache().estimatedSize(),
+                        "hits", cacheStats.hitCount(),
+                        "misses", cacheStats.missCount(),
+                        "evictions", cacheStats.evictionCount(),
+                        "hitRate", cacheStats.hitRate()));
+            }
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    // Catalogue reads are cached by clients but revalidated on every use; while the catalogue version is
+    // unchanged that costs a 304 and no database work.
+    private static ResponseEntity.BodyBuilder catalogResponse(String eTag) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag);
+    }
+
+    // Loads the bookings of every listed room in one batch instead of one query per room. Listings link
+    // the smallest photo variant.
+    private List<RoomResponse> getRoomResponses(List<RoomMetadata> rooms) {
+        List<Long> roomIds = rooms.stream().map(RoomMetadata::id).toList();
+        Map<Long, List<BookedRoom>> bookingsByRoomId = bookingService.getAllBookingsByRoomIds(roomIds);
+        return rooms.stream()
+                .map(room -> getRoomResponse(room,
+                        bookingsByRoomId.getOrDefault(room.id(), List.of()), PhotoVariant.smallest()))
+                .collect(Collectors.toList());
+    }
+
+    private RoomResponse getRoomResponse(RoomMetadata room, List<BookedRoom> bookings, PhotoVariant photoSize) {
         List<BookingResponse> bookingInfo = bookings.stream()
                 .map(booking -> new BookingResponse(
                         booking.getBookingId(),
@@ -116,22 +295,19 @@ public class RoomController {
                         booking.getBookingConfirmationCode()))
                 .collect(Collectors.toList());
 
-        // Get photo bytes from the already-fetched room object.
-        byte[] photoBytes = null;
-        Blob photoBlob = room.getPhoto();
-        if (photoBlob != null) {
-            try {
-                photoBytes = photoBlob.getBytes(1, (int) photoBlob.length());
-            } catch (SQLException e) {
-                throw new PhotoRetrievalException("Error retrieving photo for room ID: " + room.getId());
-            }
-        }
-
         // Check if the room is booked based on its list of bookings
         boolean isBooked = !bookingInfo.isEmpty();
 
-        return new RoomResponse(room.getId(),
-                room.getRoomType(), room.getRoomPrice(),
-                isBooked, photoBytes, bookingInfo);
+        return new RoomResponse(room.id(),
+                room.roomType(), room.roomPrice(),
+                isBooked, photoUrl(room, photoSize), room.photoHash(), bookingInfo);
+    }
+
+    private String photoUrl(RoomMetadata room, PhotoVariant size) {
+        if (!room.hasPhoto()) {
+            return null;
+        }
+        String url = "/rooms/room/" + room.id() + "/photo?size=" + size.key();
+        return room.photoHash() != null ? url + "&v=" + room.photoHash().substring(0, 16) : url;
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package learning.hotelbackend.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import learning.hotelbackend.request.RoomImportRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the CSV ("roomType,roomPrice", optional header row) and NDJSON (one JSON room per line) bodies of
+ * POST /rooms/bulk line by line. Blank lines are skipped; a malformed line or more than {@code maxItems}
+ * rooms fails the whole upload with an {@link IllegalArgumentException} naming the line.
+ */
+final class RoomImportParser {
+
+    private RoomImportParser() {
+    }
+
+    static List<RoomImportRequest> parseCsv(BufferedReader reader, int maxItems) throws IOException {
+        List<RoomImportRequest> rooms = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        boolean firstRow = true;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(line, lineNumber);
+            boolean header = firstRow && fields.get(0).trim().equalsIgnoreCase("roomType");
+            firstRow = false;
+            if (header) {
+                continue;
+            }
+            if (fields.size() != 2) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected roomType,roomPrice");
+            }
+            String price = fields.get(1).trim();
+            try {
+                add(rooms, new RoomImportRequest(fields.get(0), price.isEmpty() ? null : new BigDecimal(price)),
+                        maxItems);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": invalid room price '" + price + "'");
+            }
+        }
+        return rooms;
+    }
+
+    static List<RoomImportRequest> parseNdjson(BufferedReader reader, ObjectMapper objectMapper, int maxItems)
+            throws IOException {
+        List<RoomImportRequest> rooms = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                add(rooms, objectMapper.readValue(line, RoomImportRequest.class), maxItems);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getOriginalMessage());
+            }
+        }
+        return rooms;
+    }
+
+    private static void add(List<RoomImportRequest> rooms, RoomImportRequest room, int maxItems) {
+        if (rooms.size() == maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " rooms can be imported at once");
+        }
+        rooms.add(room);
+    }
+
+    // Comma-separated fields; a field may be double-quoted, with "" standing for a quote inside it.
+    private static List<String> splitCsvLine(String line, int lineNumber) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
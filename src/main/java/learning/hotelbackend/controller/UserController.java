@@ -4,6 +4,7 @@ import learning.hotelbackend.model.Role;
 import learning.hotelbackend.response.UserResponse;
 import learning.hotelbackend.service.IUserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,16 +18,22 @@ import java.util.stream.Collectors;
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
+
     private final IUserService userService;
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<List<UserResponse>> getUsers() {
-        List<User> users = userService.getUsers();
+    public ResponseEntity<List<UserResponse>> getUsers(@RequestParam(required = false) Long afterId,
+                                                       @RequestParam(required = false) Integer limit) {
+        List<User> users = limit == null ? userService.getUsers() : userService.getUsers(afterId, limit);
         List<UserResponse> userResponses = users.stream()
                 .map(this::toUserResponse)
                 .collect(Collectors.toList());
-        return new ResponseEntity<>(userResponses, HttpStatus.OK);
+        HttpHeaders headers = new HttpHeaders();
+        if (limit != null && !users.isEmpty()) {
+            headers.set(PaginationHeaders.NEXT_CURSOR, String.valueOf(users.get(users.size() - 1).getId()));
+        }
+        return new ResponseEntity<>(userResponses, headers, HttpStatus.OK);
     }
 
     @GetMapping("/{email}")
@@ -0,0 +1,168 @@
+package learning.hotelbackend.events;
+
+import learning.hotelbackend.model.BookingEvent;
+import learning.hotelbackend.repository.BookingEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drains the booking_event outbox in the background: claims due events in batches, hands each to
+ * every {@link BookingEventSink} and marks it sent. A failed event is retried with exponential
+ * backoff and jitter, only for the sinks that have not handled it yet, and is marked failed after
+ * {@code hotel.events.max-attempts} attempts.
+ */
+@Component
+public class BookingEventDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(BookingEventDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BookingEventRepository bookingEventRepository;
+    private final List<BookingEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    private final Duration retention;
+
+    public BookingEventDispatcher(BookingEventRepository bookingEventRepository,
+                                  List<BookingEventSink> sinks,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${hotel.events.dispatcher.enabled:true}") boolean enabled,
+                                  @Value("${hotel.events.batch-size:100}") int batchSize,
+                                  @Value("${hotel.events.max-attempts:10}") int maxAttempts,
+                                  @Value("${hotel.events.initial-backoff:PT1S}") Duration initialBackoff,
+                                  @Value("${hotel.events.max-backoff:PT10M}") Duration maxBackoff,
+                                  @Value("${hotel.events.claim-timeout:PT5M}") Duration claimTimeout,
+                                  @Value("${hotel.events.retention:P7D}") Duration retention) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.events.poll-interval-ms:500}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        // Keep going while batches come back full, so a backlog drains without waiting for the next poll.
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+
+    /**
+     * Claims one batch in a short transaction, then calls the sinks with no transaction open and no
+     * rows locked, and records each event's outcome in a transaction of its own. An outcome that cannot
+     * be recorded is logged and skipped; that event is claimed again once the claim times out.
+     */
+    int dispatchBatch() {
+        List<BookingEvent> events = transactionTemplate.execute(status -> claim());
+        if (events == null) {
+            return 0;
+        }
+        for (BookingEvent event : events) {
+            deliver(event);
+            try {
+                transactionTemplate.executeWithoutResult(status -> bookingEventRepository.save(event));
+            } catch (OptimisticLockingFailureException e) {
+                logger.warn("Booking event {} was claimed again by another instance after its claim timed out;"
+                        + " not recording this attempt", event.getId());
+            } catch (RuntimeException e) {
+                logger.error("Could not record the outcome of booking event {}; it is retried after the claim timeout",
+                        event.getId(), e);
+            }
+        }
+        return events.size();
+    }
+
+    // Counts the attempt and pushes the next one past the claim timeout, so other instances leave
+    // the events alone once the locks are released, and take them over if this one never reports back.
+    private List<BookingEvent> claim() {
+        Instant now = Instant.now();
+        List<BookingEvent> events = bookingEventRepository.claimDue(now, Limit.of(batchSize));
+        for (BookingEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plus(claimTimeout));
+        }
+        return events;
+    }
+
+    @Scheduled(cron = "${hotel.events.purge-cron:0 0 3 * * *}")
+    public void purgeSentEvents() {
+        Integer purged = transactionTemplate.execute(status ->
+                bookingEventRepository.deleteSentBefore(Instant.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} delivered booking events older than {}", purged, retention);
+        }
+    }
+
+    private void deliver(BookingEvent event) {
+        Set<String> delivered = new LinkedHashSet<>();
+        if (event.getDeliveredSinks() != null) {
+            delivered.addAll(Arrays.asList(event.getDeliveredSinks().split(",")));
+        }
+        for (BookingEventSink sink : sinks) {
+            if (delivered.contains(sink.name())) {
+                continue;
+            }
+            try {
+                sink.handle(event);
+            } catch (Exception e) {
+                failed(event, sink, e);
+                return;
+            }
+            delivered.add(sink.name());
+            event.setDeliveredSinks(String.join(",", delivered));
+        }
+        event.setStatus(BookingEvent.Status.SENT);
+        event.setProcessedAt(Instant.now());
+        event.setLastError(null);
+    }
+
+    private void failed(BookingEvent event, BookingEventSink sink, Exception e) {
+        String error = sink.name() + ": " + e;
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(BookingEvent.Status.FAILED);
+            event.setProcessedAt(Instant.now());
+            logger.error("Giving up on booking event {} after {} attempts: {}", event.getId(), event.getAttempts(), error);
+        } else {
+            event.setNextAttemptAt(Instant.now().plus(backoff(event.getAttempts())));
+            logger.warn("Booking event {} failed (attempt {}), retrying: {}", event.getId(), event.getAttempts(), error);
+        }
+    }
+
+    // initialBackoff * 2^(attempts - 1), capped at maxBackoff, then scaled by a random 50-100% so
+    // events that failed together do not all retry at the same moment.
+    private Duration backoff(int attempts) {
+        long millis = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        millis = Math.min(Math.max(millis, 0), maxBackoff.toMillis());
+        return Duration.ofMillis((long) (millis * ThreadLocalRandom.current().nextDouble(0.5, 1.0)));
+    }
+}
@@ -0,0 +1,17 @@
+package learning.hotelbackend.events;
+
+import learning.hotelbackend.model.BookingEvent;
+
+/**
+ * A downstream consumer of booking events (confirmation mail, analytics, ...). Any Spring bean
+ * implementing this receives every event from BookingEventDispatcher, off the request thread.
+ * When a sink fails, the event is retried only for the sinks that have not handled it yet. Delivery
+ * is still at-least-once: if the instance stops between a successful handle and recording it, that
+ * sink gets the event again, so handlers should tolerate duplicates (for example by keying on the event id).
+ */
+public interface BookingEventSink {
+
+    String name();
+
+    void handle(BookingEvent event) throws Exception;
+}
@@ -0,0 +1,25 @@
+package learning.hotelbackend.events;
+
+import learning.hotelbackend.model.BookingEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Writes one line per event to the "booking-events" logger; route it to a file with logging.* settings.
+@Component
+public class LoggingBookingEventSink implements BookingEventSink {
+    private static final Logger logger = LoggerFactory.getLogger("booking-events");
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void handle(BookingEvent event) {
+        logger.info("event={} type={} booking={} code={} room={} ({}) stay={}..{} guest={}",
+                event.getId(), event.getType(), event.getBookingId(), event.getConfirmationCode(),
+                event.getRoomId(), event.getRoomType(), event.getCheckInDate(), event.getCheckOutDate(),
+                event.getGuestEmail());
+    }
+}
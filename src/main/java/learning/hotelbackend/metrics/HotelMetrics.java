@@ -0,0 +1,100 @@
+package learning.hotelbackend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business meters of the hotel, exported at /actuator/prometheus next to the HTTP, service (@Timed),
+ * SQL and connection pool metrics. Booking rates are counters; Prometheus derives the rate with
+ * {@code rate(hotel_bookings_created_total[5m])}.
+ */
+@Component
+public class HotelMetrics {
+    private final Counter bookingsCreated;
+    private final Counter bulkBookingsCreated;
+    private final Counter bookingsCancelled;
+    private final Timer availabilityFromIndex;
+    private final Timer availabilityFromDatabase;
+    private final Timer jwtCached;
+    private final Timer jwtVerified;
+    private final Timer jwtRejected;
+    private final MeterRegistry registry;
+    private final Map<String, Counter> rateLimited = new ConcurrentHashMap<>();
+
+    public HotelMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        bookingsCreated = bookingCounter(registry, "single");
+        bulkBookingsCreated = bookingCounter(registry, "bulk");
+        bookingsCancelled = Counter.builder("hotel.bookings.cancelled")
+                .description("Bookings cancelled")
+                .register(registry);
+        availabilityFromIndex = availabilityTimer(registry, "index");
+        availabilityFromDatabase = availabilityTimer(registry, "database");
+        jwtCached = jwtTimer(registry, "cached");
+        jwtVerified = jwtTimer(registry, "verified");
+        jwtRejected = jwtTimer(registry, "rejected");
+    }
+
+    public void bookingCreated() {
+        bookingsCreated.increment();
+    }
+
+    public void bulkBookingsCreated(int count) {
+        bulkBookingsCreated.increment(count);
+    }
+
+    public void bookingCancelled() {
+        bookingsCancelled.increment();
+    }
+
+    public void availabilitySearch(boolean fromIndex, long nanos) {
+        (fromIndex ? availabilityFromIndex : availabilityFromDatabase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // result: "cached" (no signature check), "verified" or "rejected".
+    public void jwtResolved(String result, long nanos) {
+        Timer timer = switch (result) {
+            case "cached" -> jwtCached;
+            case "verified" -> jwtVerified;
+            default -> jwtRejected;
+        };
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // route: the RateLimiter route that refused the request (auth, listing, photo, default).
+    public void requestRateLimited(String route) {
+        rateLimited.computeIfAbsent(route, name -> Counter.builder("hotel.ratelimit.rejected")
+                .description("Requests refused with 429 by the rate limiter")
+                .tag("route", name)
+                .register(registry)).increment();
+    }
+
+    private static Counter bookingCounter(MeterRegistry registry, String source) {
+        return Counter.builder("hotel.bookings.created")
+                .description("Bookings committed")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private static Timer availabilityTimer(MeterRegistry registry, String source) {
+        return Timer.builder("hotel.availability.search")
+                .description("Available-room searches; source is the in-memory index or the SQL fallback")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Timer jwtTimer(MeterRegistry registry, String result) {
+        return Timer.builder("hotel.jwt.resolve")
+                .description("Time to turn a bearer token into a principal")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
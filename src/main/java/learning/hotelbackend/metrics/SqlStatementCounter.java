@@ -0,0 +1,69 @@
+package learning.hotelbackend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+
+/**
+ * Hibernate {@link StatementInspector} that counts every SQL statement by kind, and the statements of
+ * the request running on the current thread for {@link SqlStatementMetricsFilter}. It never changes
+ * the SQL.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> REQUEST_COUNT = new ThreadLocal<>();
+
+    private final Counter selects;
+    private final Counter inserts;
+    private final Counter updates;
+    private final Counter deletes;
+    private final Counter others;
+
+    public SqlStatementCounter(MeterRegistry registry) {
+        selects = counter(registry, "select");
+        inserts = counter(registry, "insert");
+        updates = counter(registry, "update");
+        deletes = counter(registry, "delete");
+        others = counter(registry, "other");
+    }
+
+    @Override
+    public String inspect(String sql) {
+        kindOf(sql).increment();
+        int[] count = REQUEST_COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    static void startRequest() {
+        REQUEST_COUNT.set(new int[1]);
+    }
+
+    static int endRequest() {
+        int[] count = REQUEST_COUNT.get();
+        REQUEST_COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    private Counter kindOf(String sql) {
+        String start = sql.stripLeading();
+        String keyword = start.length() < 6 ? "" : start.substring(0, 6).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select" -> selects;
+            case "insert" -> inserts;
+            case "update" -> updates;
+            case "delete" -> deletes;
+            default -> others;
+        };
+    }
+
+    private static Counter counter(MeterRegistry registry, String kind) {
+        return Counter.builder("hotel.sql.statements")
+                .description("SQL statements sent by Hibernate")
+                .tag("kind", kind)
+                .register(registry);
+    }
+}
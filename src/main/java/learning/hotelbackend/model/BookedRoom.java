@@ -1,22 +1,30 @@
 package learning.hotelbackend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-public class BookedRoom {
+public class BookedRoom implements Persistable<Long> {
 
+    // Assigned before insert from ConfirmationCodeGenerator, so the confirmation code can encode it.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long bookingId;
 
     @Column(name = "check_in")
@@ -31,6 +39,10 @@ public class BookedRoom {
     @Column(name = "guest_email")
     private String guestEmail;
 
+    // guestEmailHash(guestEmail): an 8-byte index key for "my bookings" lookups instead of the whole address.
+    @Column(name = "guest_email_hash")
+    private Long guestEmailHash;
+
     // 1. Corrected to standard Java camelCase
     @Column(name = "adults")
     private int numOfAdults;
@@ -50,12 +62,58 @@ public class BookedRoom {
     @JoinColumn(name = "room_id")
     private Room room;
 
+    // With an assigned id, save() would otherwise take the id as "already stored" and merge (SELECT first).
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newBooking = true;
+
+    @Override
+    @JsonIgnore
+    public Long getId() {
+        return bookingId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newBooking;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markStored() {
+        this.newBooking = false;
+    }
+
     // 2. Use a JPA lifecycle callback for more reliable calculations.
     // This method will be called automatically before the entity is saved or updated.
     @PrePersist
     @PreUpdate
     public void calculateTotalNumberOfGuests() {
         this.totalNumOfGuests = this.numOfAdults + this.numOfChildren;
+        this.guestEmailHash = guestEmailHash(this.guestEmail);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * First 63 bits of the SHA-256 of the normalized address, or null without an address. Equal
+     * hashes only narrow a lookup down; the address itself is compared as well.
+     */
+    public static Long guestEmailHash(String email) {
+        String normalized = normalizeEmail(email);
+        if (normalized == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong() >>> 1;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     // 3. The explicit setters are no longer needed; Lombok's @Setter handles them.
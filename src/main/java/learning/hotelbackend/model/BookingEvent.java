@@ -0,0 +1,90 @@
+package learning.hotelbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Outbox row written in the same transaction as the booking change it describes, and delivered to the
+ * BookingEventSinks afterwards by BookingEventDispatcher. It copies the booking details it needs, so it
+ * can still be delivered after the booking itself has been deleted.
+ */
+@Entity
+@Table(name = "booking_event")
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookingEvent {
+
+    public enum Type { BOOKED, CANCELLED }
+
+    public enum Status { PENDING, SENT, FAILED }
+
+    // Assigned in-process so the events of a bulk booking are inserted in one batch.
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    private Long bookingId;
+    private Long roomId;
+    private String roomType;
+    private String confirmationCode;
+    private String guestFullName;
+    private String guestEmail;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Delivery attempts so far and the earliest time of the next one (backoff after failures).
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant processedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // Comma-separated names of the sinks that have handled this event; retries skip them.
+    @Column(length = 1000)
+    private String deliveredSinks;
+
+    // A dispatcher whose claim timed out cannot overwrite the outcome recorded by the one that took over.
+    @Version
+    private long version;
+
+    public static BookingEvent of(Type type, BookedRoom booking, Room room) {
+        BookingEvent event = new BookingEvent();
+        event.setType(type);
+        event.setBookingId(booking.getBookingId());
+        event.setRoomId(room.getId());
+        event.setRoomType(room.getRoomType());
+        event.setConfirmationCode(booking.getBookingConfirmationCode());
+        event.setGuestFullName(booking.getGuestFullName());
+        event.setGuestEmail(booking.getGuestEmail());
+        event.setCheckInDate(booking.getCheckInDate());
+        event.setCheckOutDate(booking.getCheckOutDate());
+        event.setCreatedAt(Instant.now());
+        event.setNextAttemptAt(event.getCreatedAt());
+        return event;
+    }
+}
@@ -0,0 +1,19 @@
+package learning.hotelbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk request, by its position in the request: the id (and, for bookings,
+ * the confirmation code) of what was created, or why the item was rejected.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult(int index, boolean created, Long id, String confirmationCode, String error) {
+
+    public static BulkItemResult created(int index, Long id, String confirmationCode) {
+        return new BulkItemResult(index, true, id, confirmationCode, null);
+    }
+
+    public static BulkItemResult rejected(int index, String error) {
+        return new BulkItemResult(index, false, null, null, error);
+    }
+}
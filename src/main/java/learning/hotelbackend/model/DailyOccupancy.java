@@ -0,0 +1,10 @@
+package learning.hotelbackend.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rooms of one type booked for the night starting on {@code date}, with their guests and room revenue.
+ */
+public record DailyOccupancy(LocalDate date, String roomType, long roomsOccupied, long guests, BigDecimal revenue) {
+}
@@ -0,0 +1,9 @@
+package learning.hotelbackend.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals of {@link DailyOccupancy} for one room type over a date range.
+ */
+public record OccupancySummary(String roomType, long roomNights, long guestNights, BigDecimal revenue) {
+}
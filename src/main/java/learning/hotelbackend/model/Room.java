@@ -6,7 +6,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigDecimal;
-import java.sql.Blob;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,16 +15,31 @@ import java.util.List;
 @Setter
 @AllArgsConstructor
 public class Room {
+    // Assigned in-process, so the INSERTs of a bulk import can be JDBC-batched.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
+    // Display name of the type, kept equal to the RoomType name; searches go by roomTypeId.
     private String roomType;
+    @Column(name = "room_type_id")
+    private Integer roomTypeId;
     private BigDecimal roomPrice;
 
     // 3. Removed the flawed 'isBooked' flag. Availability is not a simple boolean.
 
-    @Lob
-    private Blob photo;
+    // Legacy storage: photos now live in PhotoStorage, and LegacyPhotoMigrator moves these rows there.
+    // A lazy proxy: a null check reads only the foreign key, never the photo bytes.
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.REMOVE, orphanRemoval = true)
+    @JoinColumn(name = "legacy_photo_id")
+    private RoomPhoto legacyPhoto;
+
+    // SHA-256 of the photo bytes: its key in PhotoStorage, ETag and cache-busting URL version.
+    @Column(length = 64)
+    private String photoHash;
+
+    private String photoContentType;
+
+    private Instant photoUpdatedAt;
 
     // 1. CRITICAL FIX: Removed CascadeType.ALL to prevent accidental deletion of booking history.
     // The lifecycle of bookings should be managed by the BookingService.
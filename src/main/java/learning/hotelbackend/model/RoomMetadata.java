@@ -0,0 +1,14 @@
+package learning.hotelbackend.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable snapshot of a room without its photo bytes or bookings; safe to keep in a cache.
+ */
+public record RoomMetadata(Long id, String roomType, BigDecimal roomPrice, boolean hasPhoto, String photoHash) {
+
+    public static RoomMetadata of(Room room) {
+        return new RoomMetadata(room.getId(), room.getRoomType(), room.getRoomPrice(),
+                room.getPhotoHash() != null || room.getLegacyPhoto() != null, room.getPhotoHash());
+    }
+}
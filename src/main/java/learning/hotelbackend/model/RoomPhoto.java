@@ -0,0 +1,24 @@
+package learning.hotelbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Blob;
+
+// Photo bytes of a room from before PhotoStorage, kept apart so that loading a Room never reads them.
+@Entity
+@Table(name = "room_photo")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RoomPhoto {
+    // The id of the room the photo was stored with; rows are only ever created by V9.
+    @Id
+    private Long id;
+
+    @Lob
+    @Column(nullable = false)
+    private Blob photo;
+}
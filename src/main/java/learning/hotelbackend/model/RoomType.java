@@ -0,0 +1,25 @@
+package learning.hotelbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// The room type vocabulary; rooms refer to it by id (Room.roomTypeId).
+@Entity
+@Table(name = "room_type")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RoomType {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    public RoomType(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,19 @@
+package learning.hotelbackend.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id that is assigned in-process from the node's Snowflake sequence, like booking ids, instead of
+ * by the database. The id is known before the INSERT, so inserts can be JDBC-batched, and no second
+ * connection or table lock is needed to obtain it.
+ */
+@IdGeneratorType(SnowflakeIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
@@ -0,0 +1,30 @@
+package learning.hotelbackend.model;
+
+import learning.hotelbackend.service.ConfirmationCodeGenerator;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Generator behind {@link SnowflakeId}. Hibernate creates it through Spring's bean container
+ * ({@code hibernate.cdi.extensions=true}), which injects the node's {@link ConfirmationCodeGenerator}.
+ */
+@RequiredArgsConstructor
+public class SnowflakeIdGenerator implements BeforeExecutionGenerator {
+    private final ConfirmationCodeGenerator idGenerator;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return idGenerator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
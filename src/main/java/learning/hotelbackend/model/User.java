@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -13,8 +14,9 @@ import java.util.HashSet;
 @Setter
 @NoArgsConstructor
 public class User {
+    // Assigned in-process like Room ids, so user inserts can be batched too.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     private String firstName;
     private String lastName;
@@ -25,6 +27,8 @@ public class User {
     @ManyToMany(fetch = FetchType.LAZY,
             cascade = {CascadeType.PERSIST,
                     CascadeType.MERGE, CascadeType.DETACH})
+    // 2. Initialize roles for up to 100 users per query when a page of users is rendered.
+    @BatchSize(size = 100)
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id"))
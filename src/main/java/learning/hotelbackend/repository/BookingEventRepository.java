@@ -0,0 +1,28 @@
+package learning.hotelbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import learning.hotelbackend.model.BookingEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2 is LockOptions.SKIP_LOCKED): each dispatcher,
+    // one per application instance, claims a different batch and none waits for another's batch.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM BookingEvent e WHERE e.status = 'PENDING' AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<BookingEvent> claimDue(Instant now, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM BookingEvent e WHERE e.status = 'SENT' AND e.processedAt < :processedBefore")
+    int deleteSentBefore(Instant processedBefore);
+}
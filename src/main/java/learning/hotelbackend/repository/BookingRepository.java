@@ -1,16 +1,87 @@
 package learning.hotelbackend.repository;
 
 import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookingRepository extends JpaRepository<BookedRoom, Long> {
+    int SUMMARY_CHUNK_SIZE = 1000;
 
+    // Selects the BookingSummary columns of a booking and its room; no entity is managed.
+    String SELECT_SUMMARY = "SELECT b.bookingId AS id, b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate, " +
+            " b.guestFullName AS guestFullName, b.guestEmail AS guestEmail, b.numOfAdults AS numOfAdults, " +
+            " b.numOfChildren AS numOfChildren, b.totalNumOfGuests AS totalNumOfGuests, " +
+            " b.bookingConfirmationCode AS bookingConfirmationCode, " +
+            " r.id AS roomId, r.roomType AS roomType, r.roomPrice AS roomPrice " +
+            " FROM BookedRoom b JOIN b.room r ";
+
+    // Written out because the derived findByRoomId(In) queries left join room and filter on room.id,
+    // which keeps the database from using the booked_room.room_id index.
+    @Query("SELECT br FROM BookedRoom br WHERE br.room.id = :roomId")
     List<BookedRoom> findByRoomId(Long roomId);
 
+    @Query("SELECT br FROM BookedRoom br WHERE br.room.id IN :roomIds")
+    List<BookedRoom> findByRoomIdIn(Collection<Long> roomIds);
+
  Optional<BookedRoom> findByBookingConfirmationCode(String confirmationCode);
 
-    List<BookedRoom> findByGuestEmail(String email);
+    // One statement through the guest_email_hash index; stays that have not ended come first, soonest
+    // first, then past stays, latest first. The address is compared too, in case two addresses share a hash.
+    @Query(SELECT_SUMMARY + " WHERE b.guestEmailHash = :emailHash AND LOWER(TRIM(b.guestEmail)) = :normalizedEmail " +
+            " ORDER BY CASE WHEN b.checkOutDate >= :today THEN 0 ELSE 1 END, " +
+            " CASE WHEN b.checkOutDate >= :today THEN b.checkInDate END ASC, " +
+            " b.checkInDate DESC, b.bookingId")
+    List<BookingSummary> findGuestBookings(Long emailHash, String normalizedEmail, LocalDate today, Pageable pageable);
+
+    @EntityGraph(attributePaths = "room")
+    Optional<BookedRoom> findWithRoomByBookingId(Long bookingId);
+
+    // Only bookings that overlap [checkInDate, checkOutDate); a booking may start on the day another ends.
+    @Query("SELECT br FROM BookedRoom br WHERE br.room.id = :roomId " +
+            " AND br.checkInDate < :checkOutDate AND br.checkOutDate > :checkInDate")
+    List<BookedRoom> findOverlappingBookings(Long roomId, LocalDate checkInDate, LocalDate checkOutDate);
+
+    @Query("SELECT br FROM BookedRoom br WHERE br.room.id IN :roomIds " +
+            " AND br.checkInDate < :checkOutDate AND br.checkOutDate > :checkInDate")
+    List<BookedRoom> findOverlappingBookingsOfRooms(Collection<Long> roomIds, LocalDate checkInDate,
+                                                   LocalDate checkOutDate);
+
+    // Only the columns the availability index needs: room id, booking id, check-in, check-out.
+    @Query("SELECT br.room.id, br.bookingId, br.checkInDate, br.checkOutDate FROM BookedRoom br")
+    List<Object[]> findAllStays();
+
+    // Keyset page: WHERE booking_id > :lastSeenId ORDER BY booking_id LIMIT n.
+    @EntityGraph(attributePaths = "room")
+    List<BookedRoom> findByBookingIdGreaterThanOrderByBookingIdAsc(Long lastSeenId, Limit limit);
+
+    // Keyset chunk: WHERE booking_id > :lastSeenId ORDER BY booking_id LIMIT n.
+    @Query(SELECT_SUMMARY + " WHERE b.bookingId > :lastSeenId ORDER BY b.bookingId")
+    List<BookingSummary> findBookingSummariesAfter(Long lastSeenId, Limit limit);
+
+    /**
+     * Hands every booking to {@code consumer} in booking id order, read SUMMARY_CHUNK_SIZE rows at a time,
+     * so at most one chunk is held in memory whatever the JDBC driver buffers. Run it in one transaction
+     * for a consistent view of the table.
+     */
+    default void forEachBookingSummary(Consumer<BookingSummary> consumer) {
+        long lastSeenId = 0L;
+        List<BookingSummary> chunk;
+        do {
+            chunk = findBookingSummariesAfter(lastSeenId, Limit.of(SUMMARY_CHUNK_SIZE));
+            chunk.forEach(consumer);
+            if (!chunk.isEmpty()) {
+                lastSeenId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == SUMMARY_CHUNK_SIZE);
+    }
 }
@@ -1,23 +1,69 @@
 package learning.hotelbackend.repository;
 
+import jakarta.persistence.LockModeType;
 import learning.hotelbackend.model.Room;
+import learning.hotelbackend.model.RoomMetadata;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
+    // Selects the RoomMetadata columns only: no managed Room, and legacy_photo_id is read as a plain column.
+    String SELECT_METADATA = "SELECT new learning.hotelbackend.model.RoomMetadata(r.id, r.roomType, r.roomPrice, " +
+            "CASE WHEN r.photoHash IS NOT NULL OR r.legacyPhoto IS NOT NULL THEN true ELSE false END, r.photoHash) " +
+            "FROM Room r ";
 
-    @Query("SELECT DISTINCT r.roomType FROM Room r")
-    List<String> findDistinctRoomTypes();
+    // SELECT ... FOR UPDATE: serializes bookings of the same room across threads and nodes.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id = :roomId")
+    Optional<Room> findByIdForUpdate(Long roomId);
 
-    @Query(" SELECT r FROM Room r " +
-            " WHERE r.roomType LIKE %:roomType% " +
+    // Locks in id order, so two bulk bookings sharing rooms cannot deadlock each other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id IN :roomIds ORDER BY r.id")
+    List<Room> findAllByIdForUpdate(Collection<Long> roomIds);
+
+    boolean existsByRoomTypeId(Integer roomTypeId);
+
+    @Query(SELECT_METADATA)
+    List<RoomMetadata> findAllMetadata();
+
+    // Keyset page: WHERE id > :lastSeenId ORDER BY id LIMIT n.
+    @Query(SELECT_METADATA + "WHERE r.id > :lastSeenId ORDER BY r.id")
+    List<RoomMetadata> findMetadataAfter(Long lastSeenId, Limit limit);
+
+    @Query(SELECT_METADATA + "WHERE r.id IN :roomIds")
+    List<RoomMetadata> findMetadataByIdIn(Collection<Long> roomIds);
+
+    // Rooms whose photo still lives in room_photo, in id order.
+    @Query("SELECT r.id FROM Room r WHERE r.legacyPhoto IS NOT NULL AND r.id > :lastSeenId ORDER BY r.id")
+    List<Long> findIdsWithLegacyPhoto(Long lastSeenId, Limit limit);
+
+    @Query(SELECT_METADATA + "WHERE r.id = :roomId")
+    Optional<RoomMetadata> findMetadataById(Long roomId);
+
+    // Loads id and type id only, so building the availability index never touches the photo column.
+    @Query("SELECT r.id, r.roomTypeId FROM Room r")
+    List<Object[]> findAllRoomTypeIdsById();
+
+    @Query(SELECT_METADATA +
+            " WHERE r.roomTypeId = :roomTypeId " +
             " AND r.id NOT IN (" +
             "  SELECT br.room.id FROM BookedRoom br " +
             "  WHERE ((br.checkInDate <= :checkOutDate) AND (br.checkOutDate >= :checkInDate))" +
             ")")
+    List<RoomMetadata> findAvailableRoomsByDatesAndType(LocalDate checkInDate, LocalDate checkOutDate, Integer roomTypeId);
 
-    List<Room> findAvailableRoomsByDatesAndType(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+    @Query(SELECT_METADATA +
+            " WHERE r.id NOT IN (" +
+            "  SELECT br.room.id FROM BookedRoom br " +
+            "  WHERE ((br.checkInDate <= :checkOutDate) AND (br.checkOutDate >= :checkInDate))" +
+            ")")
+    List<RoomMetadata> findAvailableRoomsByDates(LocalDate checkInDate, LocalDate checkOutDate);
 }
\ No newline at end of file
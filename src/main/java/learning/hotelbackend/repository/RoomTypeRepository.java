@@ -0,0 +1,20 @@
+package learning.hotelbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import learning.hotelbackend.model.RoomType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface RoomTypeRepository extends JpaRepository<RoomType, Integer> {
+
+    // The table holds a handful of rows, so the case-insensitive comparison is cheap.
+    Optional<RoomType> findByNameIgnoreCase(String name);
+
+    // SELECT ... FOR UPDATE: adding a room of this type and deleting the unused type take turns on the row.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM RoomType t WHERE t.id = :id")
+    Optional<RoomType> lockById(Integer id);
+}
@@ -1,9 +1,12 @@
 package learning.hotelbackend.repository;
 
 import learning.hotelbackend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,7 +17,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // This method is fine, but we will create a more powerful one for security.
     Optional<User> findByEmail(String email);
 
-    // ADD THIS NEW METHOD
-    @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.email = :email")
-    Optional<User> findByEmailWithRoles(String email);
+    // Login: one (id, password hash, role id) row per role of the user; role names come from RoleCatalog.
+    @Query("SELECT u.id, u.password, r.id FROM User u JOIN u.roles r WHERE u.email = :email")
+    List<Object[]> findCredentialsByEmail(String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(String email, String password);
+
+    // Keyset page: WHERE id > :lastSeenId ORDER BY id LIMIT n. Roles are batch-loaded (see User.roles).
+    List<User> findByIdGreaterThanOrderByIdAsc(Long lastSeenId, Limit limit);
 }
\ No newline at end of file
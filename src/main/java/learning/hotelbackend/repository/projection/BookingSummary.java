@@ -0,0 +1,34 @@
+package learning.hotelbackend.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only view of a booking and the room it belongs to, filled straight from a
+ * JPQL projection so no {@code BookedRoom} or {@code Room} entities are managed.
+ */
+public interface BookingSummary {
+    Long getId();
+
+    LocalDate getCheckInDate();
+
+    LocalDate getCheckOutDate();
+
+    String getGuestFullName();
+
+    String getGuestEmail();
+
+    int getNumOfAdults();
+
+    int getNumOfChildren();
+
+    int getTotalNumOfGuests();
+
+    String getBookingConfirmationCode();
+
+    Long getRoomId();
+
+    String getRoomType();
+
+    BigDecimal getRoomPrice();
+}
@@ -0,0 +1,17 @@
+package learning.hotelbackend.request;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// One booking of a POST /bookings/bulk request; the fields of a single booking plus its room.
+@Data
+public class BulkBookingRequest {
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private String guestFullName;
+    private String guestEmail;
+    private int numOfAdults;
+    private int numOfChildren;
+}
@@ -0,0 +1,16 @@
+package learning.hotelbackend.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One room of a POST /rooms/bulk request (a JSON array element, an NDJSON line or a CSV row).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomImportRequest {
+    private String roomType;
+    private BigDecimal roomPrice;
+}
@@ -0,0 +1,108 @@
+package learning.hotelbackend.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import learning.hotelbackend.repository.projection.BookingSummary;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes bookings in the JSON shape of {@link BookingResponse} straight from {@link BookingSummary}
+ * projections, without a BookingResponse and RoomResponse per booking. The nested room is rendered
+ * once per distinct room, through the application's mapper, and copied as raw JSON into every
+ * booking of that room. Not thread-safe; use one writer per response.
+ */
+public class BookingJsonWriter {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString CHECK_IN_DATE = new SerializedString("checkInDate");
+    private static final SerializableString CHECK_OUT_DATE = new SerializedString("checkOutDate");
+    private static final SerializableString GUEST_NAME = new SerializedString("guestName");
+    private static final SerializableString GUEST_EMAIL = new SerializedString("guestEmail");
+    private static final SerializableString NUM_OF_ADULTS = new SerializedString("numOfAdults");
+    private static final SerializableString NUM_OF_CHILDREN = new SerializedString("numOfChildren");
+    private static final SerializableString TOTAL_NUM_OF_GUESTS = new SerializedString("totalNumOfGuests");
+    private static final SerializableString CONFIRMATION_CODE = new SerializedString("bookingConfirmationCode");
+    private static final SerializableString ROOM = new SerializedString("room");
+
+    private final ObjectMapper objectMapper;
+    private final JsonGenerator generator;
+    private final boolean datesAsTimestamps;
+    private final Map<Long, SerializableString> rooms = new HashMap<>();
+    // yyyy-MM-dd, reused for every date.
+    private final char[] dateBuffer = new char[10];
+
+    public BookingJsonWriter(ObjectMapper objectMapper, JsonGenerator generator) {
+        this.objectMapper = objectMapper;
+        this.generator = generator;
+        this.datesAsTimestamps = objectMapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public void write(BookingSummary booking) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(booking.getId());
+        writeDate(CHECK_IN_DATE, booking.getCheckInDate());
+        writeDate(CHECK_OUT_DATE, booking.getCheckOutDate());
+        generator.writeFieldName(GUEST_NAME);
+        generator.writeString(booking.getGuestFullName());
+        generator.writeFieldName(GUEST_EMAIL);
+        generator.writeString(booking.getGuestEmail());
+        generator.writeFieldName(NUM_OF_ADULTS);
+        generator.writeNumber(booking.getNumOfAdults());
+        generator.writeFieldName(NUM_OF_CHILDREN);
+        generator.writeNumber(booking.getNumOfChildren());
+        generator.writeFieldName(TOTAL_NUM_OF_GUESTS);
+        generator.writeNumber(booking.getTotalNumOfGuests());
+        generator.writeFieldName(CONFIRMATION_CODE);
+        generator.writeString(booking.getBookingConfirmationCode());
+        generator.writeFieldName(ROOM);
+        generator.writeRawValue(room(booking));
+        generator.writeEndObject();
+    }
+
+    private SerializableString room(BookingSummary booking) throws IOException {
+        SerializableString room = rooms.get(booking.getRoomId());
+        if (room == null) {
+            room = new SerializedString(objectMapper.writeValueAsString(
+                    new RoomResponse(booking.getRoomId(), booking.getRoomType(), booking.getRoomPrice())));
+            rooms.put(booking.getRoomId(), room);
+        }
+        return room;
+    }
+
+    // As the mapper's LocalDateSerializer: ISO-8601 text (Spring Boot's default) or [year, month, day].
+    private void writeDate(SerializableString field, LocalDate date) throws IOException {
+        generator.writeFieldName(field);
+        if (date == null) {
+            generator.writeNull();
+        } else if (datesAsTimestamps) {
+            generator.writeStartArray();
+            generator.writeNumber(date.getYear());
+            generator.writeNumber(date.getMonthValue());
+            generator.writeNumber(date.getDayOfMonth());
+            generator.writeEndArray();
+        } else if (date.getYear() < 1000 || date.getYear() > 9999) {
+            generator.writeString(date.toString());
+        } else {
+            writeDigits(date.getYear(), 0, 4);
+            dateBuffer[4] = '-';
+            writeDigits(date.getMonthValue(), 5, 2);
+            dateBuffer[7] = '-';
+            writeDigits(date.getDayOfMonth(), 8, 2);
+            generator.writeString(dateBuffer, 0, dateBuffer.length);
+        }
+    }
+
+    private void writeDigits(int value, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            dateBuffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package learning.hotelbackend.response;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.apache.tomcat.util.codec.binary.Base64;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -14,7 +13,9 @@ public class RoomResponse {
     private String roomType;
     private BigDecimal roomPrice;
     private boolean isBooked;
-    private String photo;
+    // The photo itself is served by /rooms/room/{id}/photo; listings only carry its URL and hash.
+    private String photoUrl;
+    private String photoHash;
     private List<BookingResponse> bookings;
 
     public RoomResponse(Long id, String roomType, BigDecimal roomPrice) {
@@ -24,12 +25,13 @@ public class RoomResponse {
     }
 
     public RoomResponse(Long id, String roomType, BigDecimal roomPrice, boolean isBooked,
-                        byte[] photoBytes , List<BookingResponse> bookings) {
+                        String photoUrl, String photoHash, List<BookingResponse> bookings) {
         this.id = id;
         this.roomType = roomType;
         this.roomPrice = roomPrice;
         this.isBooked = isBooked;
-        this.photo = photoBytes != null ? Base64.encodeBase64String(photoBytes) : null;
+        this.photoUrl = photoUrl;
+        this.photoHash = photoHash;
        this.bookings = bookings;
     }
 
@@ -2,8 +2,11 @@ package learning.hotelbackend.security;
 
 import learning.hotelbackend.security.jwt.AuthTokenFilter;
 import learning.hotelbackend.security.jwt.JwtAuthEntryPoint;
+import learning.hotelbackend.security.ratelimit.RateLimitFilter;
+import learning.hotelbackend.security.ratelimit.RateLimiter;
 import learning.hotelbackend.security.user.HotelUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +17,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,6 +27,7 @@ import org.springframework.web.filter.CorsFilter;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor
@@ -30,24 +35,32 @@ import java.util.Collections;
 public class WebSecurityConfig {
     private final HotelUserDetailsService userDetailsService;
     private final JwtAuthEntryPoint jwtAuthEntryPoint;
+    private final RateLimiter rateLimiter;
 
     @Bean
     public AuthTokenFilter authenticationTokenFilter() {
         return new AuthTokenFilter();
     }
 
+    // New hashes are "{bcrypt}" + BCrypt at hotel.security.bcrypt-strength. Hashes stored without a
+    // prefix are matched as plain BCrypt; those, and hashes of a lower cost, are re-hashed at the next
+    // successful login through the UserDetailsPasswordService.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${hotel.security.bcrypt-strength:10}") int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         var authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
 
         // This line is CRITICAL. It tells Spring Security to use our password checker bean for logins.
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
 
         return authProvider;
     }
@@ -58,7 +71,8 @@ public class WebSecurityConfig {
 
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider)
+            throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(jwtAuthEntryPoint))
@@ -66,11 +80,16 @@ public class WebSecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // This line is the FIX. It makes registration and login public.
                         .requestMatchers("/auth/**", "/rooms/**", "/bookings/**").permitAll()
+                        // Probes and the Prometheus scraper; the prod profile moves them to the management port.
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                         // All other requests require authentication
                         .anyRequest().authenticated());
 
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
         http.addFilterBefore(authenticationTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Not a bean, so it only runs here, once the token filter has resolved the caller.
+        http.addFilterAfter(new RateLimitFilter(rateLimiter), AuthTokenFilter.class);
         return http.build();
     }
     // This bean replaces the need for the separate CorsConfig.java file
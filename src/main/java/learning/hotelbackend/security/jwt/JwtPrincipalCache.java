@@ -0,0 +1,114 @@
+package learning.hotelbackend.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import learning.hotelbackend.metrics.HotelMetrics;
+import learning.hotelbackend.security.user.HotelUserDetails;
+import learning.hotelbackend.security.user.HotelUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the principal of every verified token, keyed by the token's SHA-256 digest, until the
+ * token expires. A cached token costs no signature check and no database query; a new token
+ * costs one signature check, and the principal is built from its signed "userId" and "roles" claims.
+ */
+@Component
+public class JwtPrincipalCache {
+    private final JwtUtils jwtUtils;
+    private final HotelUserDetailsService userDetailsService;
+    private final HotelMetrics hotelMetrics;
+    private final Cache<String, CachedPrincipal> principals;
+
+    public JwtPrincipalCache(JwtUtils jwtUtils,
+                             HotelUserDetailsService userDetailsService,
+                             HotelMetrics hotelMetrics,
+                             @Value("${auth.token.cache.maximumSize:10000}") long maximumSize) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.hotelMetrics = hotelMetrics;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    /**
+     * @return the principal for a valid token, or null if the token is invalid or expired
+     */
+    public HotelUserDetails resolve(String token) {
+        long start = System.nanoTime();
+        String digest = digest(token);
+        CachedPrincipal cached = principals.getIfPresent(digest);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            hotelMetrics.jwtResolved("cached", System.nanoTime() - start);
+            return cached.principal();
+        }
+        Claims claims = jwtUtils.parseClaims(token);
+        if (claims == null) {
+            hotelMetrics.jwtResolved("rejected", System.nanoTime() - start);
+            return null;
+        }
+        HotelUserDetails principal = buildPrincipal(claims);
+        principals.put(digest, new CachedPrincipal(principal, claims.getExpiration().getTime()));
+        hotelMetrics.jwtResolved("verified", System.nanoTime() - start);
+        return principal;
+    }
+
+    private HotelUserDetails buildPrincipal(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        List<?> roles = claims.get("roles", List.class);
+        if (userId == null || roles == null) {
+            // Tokens issued before the userId claim existed still need the database lookup.
+            HotelUserDetails loaded = (HotelUserDetails) userDetailsService.loadUserByUsername(claims.getSubject());
+            loaded.setPassword(null);
+            return loaded;
+        }
+        Collection<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        return new HotelUserDetails(userId.longValue(), claims.getSubject(), null, authorities);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedPrincipal(HotelUserDetails principal, long expiresAtMillis) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, CachedPrincipal> {
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            long remainingMillis = Math.max(0, value.expiresAtMillis() - System.currentTimeMillis());
+            return TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import learning.hotelbackend.security.user.HotelUserDetails;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,32 +26,47 @@ public class JwtUtils {
     @Value("${auth.token.expirationInMils}")
     private int jwtExpirationMs;
 
+    // Derived once; decoding the secret and building the HMAC key on every call is wasted work.
+    private Key key;
+    private JwtParser parser;
+
+    @PostConstruct
+    void initKey() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
     public String generateJwtTokenForUser(Authentication authentication){
         HotelUserDetails userPrincipal = (HotelUserDetails) authentication.getPrincipal();
         List<String> roles = userPrincipal.getAuthorities()
                 .stream()
                 .map(GrantedAuthority::getAuthority).toList();
+        return generateJwtTokenForUser(userPrincipal, roles);
+    }
+
+    // For callers that already hold the role names, so they are not derived from the authorities again.
+    public String generateJwtTokenForUser(HotelUserDetails userPrincipal, List<String> roles){
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .claim("userId", userPrincipal.getId())
                 .claim("roles", roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime()+jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256).compact();
+                .signWith(key, SignatureAlgorithm.HS256).compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
     public String getUserNameFromToken(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
+
     public boolean validateToken(String token){
+        return parseClaims(token) != null;
+    }
+
+    // Verifies the signature and expiry once and returns the claims, or null if the token is not valid.
+    public Claims parseClaims(String token){
         try{
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(token);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         }catch(MalformedJwtException e){
             logger.error("Invalid jwt token : {} ", e.getMessage());
         }catch (ExpiredJwtException e){
@@ -59,8 +75,10 @@ public class JwtUtils {
             logger.error("This token is not supported : {} ", e.getMessage());
         }catch (IllegalArgumentException e){
             logger.error("No  claims found : {} ", e.getMessage());
+        }catch (JwtException e){
+            logger.error("Token rejected : {} ", e.getMessage());
         }
-        return false;
+        return null;
     }
 
 
@@ -0,0 +1,122 @@
+package learning.hotelbackend.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import learning.hotelbackend.metrics.HotelMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-client token buckets for {@link RateLimitFilter}. Every client has an "api" bucket, which
+ * listings and photo fetches draw several tokens from, and a smaller "auth" bucket for /auth/**.
+ * Buckets live in a size-bounded Caffeine cache (a striped ConcurrentHashMap underneath) and are
+ * dropped after hotel.rate-limit.idle-timeout without requests; by then a bucket would be full
+ * again, so dropping it forgets nothing.
+ */
+@Component
+public class RateLimiter {
+    private static final PathPatternRequestMatcher.Builder PATHS = PathPatternRequestMatcher.withDefaults();
+
+    private final boolean enabled;
+    private final Bucket api;
+    private final Bucket auth;
+    private final List<Route> routes;
+    private final RequestMatcher exempt = PATHS.matcher("/actuator/**");
+    private final Cache<String, TokenBucket> buckets;
+    private final HotelMetrics hotelMetrics;
+
+    public RateLimiter(HotelMetrics hotelMetrics,
+                       MeterRegistry registry,
+                       @Value("${hotel.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${hotel.rate-limit.capacity:120}") int capacity,
+                       @Value("${hotel.rate-limit.refill-per-second:20}") double refillPerSecond,
+                       @Value("${hotel.rate-limit.listing-cost:10}") int listingCost,
+                       @Value("${hotel.rate-limit.photo-cost:4}") int photoCost,
+                       @Value("${hotel.rate-limit.auth.capacity:10}") int authCapacity,
+                       @Value("${hotel.rate-limit.auth.refill-per-second:1}") double authRefillPerSecond,
+                       @Value("${hotel.rate-limit.max-clients:100000}") long maxClients,
+                       @Value("${hotel.rate-limit.idle-timeout:PT10M}") Duration idleTimeout) {
+        this.hotelMetrics = hotelMetrics;
+        this.enabled = enabled;
+        this.api = new Bucket("api", capacity, refillPerSecond);
+        this.auth = new Bucket("auth", authCapacity, authRefillPerSecond);
+        this.routes = List.of(
+                new Route("auth", auth, 1, "/auth/**"),
+                new Route("listing", api, listingCost, "/rooms/all-rooms", "/rooms/available-rooms",
+                        "/bookings/all-bookings", "/bookings/all-bookings/export", "/users/all"),
+                new Route("photo", api, photoCost, "/rooms/room/*/photo"),
+                new Route("default", api, 1, "/**"));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        // Same tag keys as the Spring-managed caches get; Prometheus drops a meter whose name is already
+        // registered with other tag keys, and the cache.* names are shared.
+        CaffeineCacheMetrics.monitor(registry, buckets, "rateLimitBuckets",
+                Tags.of("cache.manager", "rateLimiter", "name", "rateLimitBuckets"));
+    }
+
+    /**
+     * Takes the request's tokens from the client's bucket.
+     *
+     * @param client the JWT subject or the remote address
+     * @return 0 if the request may proceed, else the seconds (rounded up) the client should wait
+     */
+    public long tryAcquire(HttpServletRequest request, String client) {
+        if (!enabled || exempt.matches(request)) {
+            return 0;
+        }
+        Route route = route(request);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(route.bucket().name() + ':' + client,
+                key -> new TokenBucket(route.bucket().capacity(), route.bucket().refillPerSecond(), now));
+        long waitNanos = bucket.tryTake(route.cost(), now);
+        if (waitNanos == 0) {
+            return 0;
+        }
+        hotelMetrics.requestRateLimited(route.name());
+        return (waitNanos + 999_999_999) / 1_000_000_000;
+    }
+
+    private Route route(HttpServletRequest request) {
+        for (Route route : routes) {
+            if (route.matches(request)) {
+                return route;
+            }
+        }
+        throw new IllegalStateException("No rate limit route for " + request.getRequestURI());
+    }
+
+    private record Bucket(String name, int capacity, double refillPerSecond) {
+    }
+
+    private record Route(String name, Bucket bucket, int cost, List<RequestMatcher> matchers) {
+        Route(String name, Bucket bucket, int cost, String... patterns) {
+            this(name, bucket, cost, Arrays.stream(patterns).map(PATHS::matcher).map(RequestMatcher.class::cast).toList());
+            if (cost < 1 || cost > bucket.capacity()) {
+                throw new IllegalArgumentException("The " + name + " cost must be between 1 and the "
+                        + bucket.name() + " capacity, was " + cost);
+            }
+        }
+
+        boolean matches(HttpServletRequest request) {
+            for (RequestMatcher matcher : matchers) {
+                if (matcher.matches(request)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
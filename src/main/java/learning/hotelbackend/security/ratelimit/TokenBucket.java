@@ -0,0 +1,38 @@
+package learning.hotelbackend.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket of one client. The whole state is one "theoretical arrival time" (the
+ * generic cell rate algorithm): the instant at which the bucket would be full again. Taking tokens
+ * moves it forward by cost * interval, and a request is admitted while that stays within
+ * capacity * interval of now.
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.toleranceNanos = capacity * intervalNanos;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 if the tokens were taken, else the nanoseconds until they would be available
+     */
+    long tryTake(int cost, long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + cost * intervalNanos;
+            long overshoot = next - nowNanos - toleranceNanos;
+            if (overshoot > 0) {
+                return overshoot;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,26 +1,48 @@
 package learning.hotelbackend.security.user;
 
-import learning.hotelbackend.model.User;
 import learning.hotelbackend.repository.UserRepository;
+import learning.hotelbackend.service.RoleCatalog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional; // Add this import
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
-public class HotelUserDetailsService implements UserDetailsService {
+public class HotelUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final RoleCatalog roleCatalog;
 
     @Override
-    @Transactional // Add this annotation to keep the session open
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        // Change this line to use the new method
-        User user = userRepository.findByEmailWithRoles(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        
-        return HotelUserDetails.buildUserDetails(user);
+        // One query for the credentials and role ids; no User or Role entities are loaded.
+        List<Object[]> rows = userRepository.findCredentialsByEmail(email);
+        if (rows.isEmpty()) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            GrantedAuthority authority = roleCatalog.authority((Long) row[2]);
+            if (authority != null) {
+                authorities.add(authority);
+            }
+        }
+        return new HotelUserDetails((Long) rows.get(0)[0], email, (String) rows.get(0)[1], authorities);
+    }
+
+    // Called after a successful login whose stored hash is outdated (legacy format or lower BCrypt cost).
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        ((HotelUserDetails) user).setPassword(newPassword);
+        return user;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package learning.hotelbackend.security.user;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs logins (the credentials query and the deliberately slow BCrypt check) on their own bounded
+ * pool instead of Tomcat's request threads, so a login storm cannot starve the rest of the API. BCrypt
+ * is CPU-bound, so the pool defaults to one thread per core. When the pool and its queue are full a
+ * login is refused at once with a {@link RejectedExecutionException}, which the controller answers
+ * with 429.
+ */
+@Service
+public class LoginService {
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+
+    public LoginService(AuthenticationManager authenticationManager,
+                        @Value("${hotel.security.login.threads:0}") int threads,
+                        @Value("${hotel.security.login.queue-capacity:200}") int queueCapacity) {
+        this.authenticationManager = authenticationManager;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreadFactory());
+    }
+
+    /**
+     * Checks the credentials on the login pool. The future fails with the AuthenticationException of
+     * a rejected login.
+     *
+     * @throws RejectedExecutionException if the login pool is saturated
+     */
+    public CompletableFuture<HotelUserDetails> authenticate(String email, String password) {
+        return CompletableFuture.supplyAsync(() -> (HotelUserDetails) authenticationManager
+                .authenticate(UsernamePasswordAuthenticationToken.unauthenticated(email, password))
+                .getPrincipal(), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "login-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
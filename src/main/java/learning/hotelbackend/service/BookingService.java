@@ -1,19 +1,50 @@
 package learning.hotelbackend.service;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import learning.hotelbackend.exception.InvalidBookingRequestException;
 import learning.hotelbackend.exception.ResourceNotFoundException;
+import learning.hotelbackend.metrics.HotelMetrics;
 import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.BookingEvent;
+import learning.hotelbackend.model.BulkItemResult;
 import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.BookingEventRepository;
 import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import learning.hotelbackend.request.BulkBookingRequest;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "hotel.service", histogram = true)
 public class BookingService implements IBookingService {
+    // Keeps each IN (...) list well below driver and optimizer limits.
+    private static final int ROOM_ID_CHUNK_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final BookingRepository bookingRepository;
-    private final IRoomService roomService;
+    private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final OccupancyRollup occupancyRollup;
+    private final BookingEventRepository bookingEventRepository;
+    private final ConfirmationCodeGenerator confirmationCodeGenerator;
+    private final GuestBookingCache guestBookingCache;
+    private final HotelMetrics hotelMetrics;
+    private final CatalogVersion catalogVersion;
 
     @Override
     public List<BookedRoom> getAllBookings() {
@@ -21,13 +52,43 @@ public class BookingService implements IBookingService {
     }
 
     @Override
-    public List<BookedRoom> getBookingsByUserEmail(String email) {
-        return bookingRepository.findByGuestEmail(email);
+    public List<BookedRoom> getBookings(Long lastSeenId, int limit) {
+        return bookingRepository.findByBookingIdGreaterThanOrderByBookingIdAsc(
+                lastSeenId != null ? lastSeenId : 0L, Limit.of(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE)));
+    }
+
+    // One read-only transaction, so all chunks see the same snapshot of the table.
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllBookings(Consumer<BookingSummary> consumer) {
+        bookingRepository.forEachBookingSummary(consumer);
     }
 
     @Override
+    public List<BookingSummary> getBookingsByUserEmail(String email, Pageable pageable) {
+        String normalizedEmail = BookedRoom.normalizeEmail(email);
+        Long emailHash = BookedRoom.guestEmailHash(normalizedEmail);
+        return guestBookingCache.get(emailHash, pageable, () -> bookingRepository.findGuestBookings(
+                emailHash, normalizedEmail, LocalDate.now(), pageable));
+    }
+
+    @Override
+    @Transactional
     public void cancelBooking(Long bookingId) {
-        bookingRepository.deleteById(bookingId);
+        // Loaded first so the rollup knows which nights, room type and price to take back out.
+        bookingRepository.findWithRoomByBookingId(bookingId).ifPresent(booking -> {
+            Room room = booking.getRoom();
+            bookingRepository.delete(booking);
+            bookingEventRepository.save(BookingEvent.of(BookingEvent.Type.CANCELLED, booking, room));
+            catalogVersion.bump();
+            afterCommit(() -> {
+                hotelMetrics.bookingCancelled();
+                guestBookingCache.evict(BookedRoom.guestEmailHash(booking.getGuestEmail()));
+                availabilityIndex.removeBooking(bookingId);
+                occupancyRollup.removeBooking(bookingId, booking.getCheckInDate(), booking.getCheckOutDate(),
+                        room.getRoomType(), room.getRoomPrice(), booking.getTotalNumOfGuests());
+            });
+        });
     }
 
     @Override
@@ -36,38 +97,186 @@ public class BookingService implements IBookingService {
     }
 
     @Override
+    public Map<Long, List<BookedRoom>> getAllBookingsByRoomIds(Collection<Long> roomIds) {
+        Map<Long, List<BookedRoom>> bookingsByRoomId = new HashMap<>(roomIds.size() * 2);
+        List<Long> ids = new ArrayList<>(roomIds);
+        for (int from = 0; from < ids.size(); from += ROOM_ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ROOM_ID_CHUNK_SIZE, ids.size()));
+            for (BookedRoom booking : bookingRepository.findByRoomIdIn(chunk)) {
+                // getId() on the lazy room proxy does not initialize it, so no extra query is issued.
+                bookingsByRoomId.computeIfAbsent(booking.getRoom().getId(), id -> new ArrayList<>()).add(booking);
+            }
+        }
+        return bookingsByRoomId;
+    }
+
+    @Override
+    @Transactional
     public String saveBooking(Long roomId, BookedRoom bookingRequest) {
         if (bookingRequest.getCheckOutDate().isBefore(bookingRequest.getCheckInDate())) {
             throw new InvalidBookingRequestException("Check-in date must come before check-out date");
         }
 
-        // 2. Safely get the room or throw a specific exception
-        Room room = roomService.getRoomById(roomId)
+        // 2. Safely get the room or throw a specific exception.
+        // The row lock is held until commit, so a concurrent booking of this room waits here and then
+        // sees this booking in its availability check; bookings of other rooms are not blocked.
+        Room room = roomRepository.findByIdForUpdate(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with ID: " + roomId));
 
-        List<BookedRoom> existingBookings = room.getBookings();
+        // Load only the bookings around the requested dates instead of the room's whole history.
+        List<BookedRoom> existingBookings = bookingRepository.findOverlappingBookings(
+                roomId, bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate());
         boolean roomIsAvailable = roomIsAvailable(bookingRequest, existingBookings);
 
         if (roomIsAvailable) {
             // 3. Move business logic here: generate confirmation code
-            String confirmationCode = RandomStringUtils.randomNumeric(10);
-            bookingRequest.setBookingConfirmationCode(confirmationCode);
-            room.addBooking(bookingRequest); // This now only syncs the relationship
+            // The code encodes the (unique) booking id, so it needs no uniqueness check against the table.
+            long bookingId = confirmationCodeGenerator.nextId();
+            bookingRequest.setBookingId(bookingId);
+            bookingRequest.setBookingConfirmationCode(confirmationCodeGenerator.encode(bookingId));
+            // Set only the owning side, so the room's (possibly huge) bookings collection is never loaded.
+            bookingRequest.setRoom(room);
             bookingRepository.save(bookingRequest);
+            // Follow-up work (mail, analytics) reads this outbox row after commit, off the request thread.
+            bookingEventRepository.save(BookingEvent.of(BookingEvent.Type.BOOKED, bookingRequest, room));
+            catalogVersion.bump();
+            afterCommit(() -> {
+                hotelMetrics.bookingCreated();
+                guestBookingCache.evict(BookedRoom.guestEmailHash(bookingRequest.getGuestEmail()));
+                availabilityIndex.addBooking(roomId, bookingRequest.getBookingId(),
+                        bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate());
+                occupancyRollup.addBooking(bookingRequest.getBookingId(), bookingRequest.getCheckInDate(),
+                        bookingRequest.getCheckOutDate(), room.getRoomType(), room.getRoomPrice(),
+                        bookingRequest.getTotalNumOfGuests());
+            });
         } else {
             throw new InvalidBookingRequestException("Sorry, this room is not available for the selected dates.");
         }
         return bookingRequest.getBookingConfirmationCode();
     }
 
+    @Override
+    @Transactional
+    public List<BulkItemResult> saveBookings(List<BulkBookingRequest> bookingRequests) {
+        BulkItemResult[] results = new BulkItemResult[bookingRequests.size()];
+        // Sorted by room id, the order in which the rooms are locked.
+        Map<Long, List<Integer>> indexesByRoomId = new TreeMap<>();
+        LocalDate earliestCheckIn = null;
+        LocalDate latestCheckOut = null;
+        for (int i = 0; i < bookingRequests.size(); i++) {
+            BulkBookingRequest request = bookingRequests.get(i);
+            if (request == null || request.getRoomId() == null
+                    || request.getCheckInDate() == null || request.getCheckOutDate() == null) {
+                results[i] = BulkItemResult.rejected(i, "Room id, check-in and check-out dates are required");
+            } else if (request.getCheckOutDate().isBefore(request.getCheckInDate())) {
+                results[i] = BulkItemResult.rejected(i, "Check-in date must come before check-out date");
+            } else {
+                indexesByRoomId.computeIfAbsent(request.getRoomId(), id -> new ArrayList<>()).add(i);
+                earliestCheckIn = min(earliestCheckIn, request.getCheckInDate());
+                latestCheckOut = max(latestCheckOut, request.getCheckOutDate());
+            }
+        }
+        if (indexesByRoomId.isEmpty()) {
+            return List.of(results);
+        }
+
+        // 1. Lock every room of the batch, then load what is already booked across the batch's dates
+        // with one query, instead of a lock and an availability query per booking.
+        Map<Long, Room> rooms = new HashMap<>();
+        roomRepository.findAllByIdForUpdate(indexesByRoomId.keySet()).forEach(room -> rooms.put(room.getId(), room));
+        Map<Long, List<BookedRoom>> bookingsByRoomId = new HashMap<>();
+        for (BookedRoom booking : bookingRepository.findOverlappingBookingsOfRooms(
+                indexesByRoomId.keySet(), earliestCheckIn, latestCheckOut)) {
+            bookingsByRoomId.computeIfAbsent(booking.getRoom().getId(), id -> new ArrayList<>()).add(booking);
+        }
+
+        // 2. Check each booking against the stored ones and the ones accepted earlier in this batch.
+        List<BookedRoom> accepted = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> entry : indexesByRoomId.entrySet()) {
+            Room room = rooms.get(entry.getKey());
+            List<BookedRoom> roomBookings = bookingsByRoomId.computeIfAbsent(entry.getKey(), id -> new ArrayList<>());
+            for (int i : entry.getValue()) {
+                if (room == null) {
+                    results[i] = BulkItemResult.rejected(i, "Room not found with ID: " + entry.getKey());
+                    continue;
+                }
+                BookedRoom booking = toBookedRoom(bookingRequests.get(i));
+                if (!roomIsAvailable(booking, roomBookings)) {
+                    results[i] = BulkItemResult.rejected(i, "Sorry, this room is not available for the selected dates.");
+                    continue;
+                }
+                long bookingId = confirmationCodeGenerator.nextId();
+                booking.setBookingId(bookingId);
+                booking.setBookingConfirmationCode(confirmationCodeGenerator.encode(bookingId));
+                booking.setRoom(room);
+                roomBookings.add(booking);
+                accepted.add(booking);
+                results[i] = BulkItemResult.created(i, bookingId, booking.getBookingConfirmationCode());
+            }
+        }
+
+        // 3. Insert the bookings and their outbox events in JDBC batches.
+        bookingRepository.saveAll(accepted);
+        bookingEventRepository.saveAll(accepted.stream()
+                .map(booking -> BookingEvent.of(BookingEvent.Type.BOOKED, booking, booking.getRoom()))
+                .toList());
+        catalogVersion.bump();
+        afterCommit(() -> {
+            hotelMetrics.bulkBookingsCreated(accepted.size());
+            for (BookedRoom booking : accepted) {
+                Room room = booking.getRoom();
+                guestBookingCache.evict(BookedRoom.guestEmailHash(booking.getGuestEmail()));
+                availabilityIndex.addBooking(room.getId(), booking.getBookingId(),
+                        booking.getCheckInDate(), booking.getCheckOutDate());
+                occupancyRollup.addBooking(booking.getBookingId(), booking.getCheckInDate(),
+                        booking.getCheckOutDate(), room.getRoomType(), room.getRoomPrice(),
+                        booking.getTotalNumOfGuests());
+            }
+        });
+        return List.of(results);
+    }
+
+    private static BookedRoom toBookedRoom(BulkBookingRequest request) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(request.getCheckInDate());
+        booking.setCheckOutDate(request.getCheckOutDate());
+        booking.setGuestFullName(request.getGuestFullName());
+        booking.setGuestEmail(request.getGuestEmail());
+        booking.setNumOfAdults(request.getNumOfAdults());
+        booking.setNumOfChildren(request.getNumOfChildren());
+        booking.calculateTotalNumberOfGuests();
+        return booking;
+    }
+
+    private static LocalDate min(LocalDate current, LocalDate candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
+    private static LocalDate max(LocalDate current, LocalDate candidate) {
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
     @Override
     public BookedRoom findByBookingConfirmationCode(String confirmationCode) {
-        return bookingRepository.findByBookingConfirmationCode(confirmationCode)
+        // Generated codes decode to the primary key; older numeric codes go through the code index.
+        return confirmationCodeGenerator.decode(confirmationCode)
+                .flatMap(bookingRepository::findById)
+                .or(() -> bookingRepository.findByBookingConfirmationCode(confirmationCode))
                 .orElseThrow(() -> new ResourceNotFoundException("No booking found with booking code: " + confirmationCode));
     }
 
+    // In-memory structures only learn about a booking change once it is committed.
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     // 1. CRITICAL FIX: Replaced with the standard, correct algorithm for checking date overlaps.
-    private boolean roomIsAvailable(BookedRoom bookingRequest, List<BookedRoom> existingBookings) {
+    static boolean roomIsAvailable(BookedRoom bookingRequest, List<BookedRoom> existingBookings) {
         return existingBookings.stream()
                 .noneMatch(existingBooking ->
                         // Check if new booking's check-in is before existing's check-out
@@ -0,0 +1,80 @@
+package learning.hotelbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Version of the room catalogue (rooms, room types, photos and which rooms are booked), bumped with
+ * every committed change. Its strong ETag lets GET /rooms/all-rooms, /rooms/room/types and
+ * /rooms/room/{roomId} answer If-None-Match with 304 without loading the catalogue.
+ * <p>
+ * The version lives in the catalog_version row, so every instance issues the same ETag for the same
+ * catalogue. Each instance re-reads it at most once per {@code hotel.catalog.version-refresh}: a change
+ * made through this instance shows at once, one made through another instance within that interval.
+ */
+@Component
+public class CatalogVersion {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final long refreshNanos;
+    private volatile ETag eTag;
+
+    public CatalogVersion(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          @Value("${hotel.catalog.version-refresh:PT1S}") Duration refresh) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.refreshNanos = refresh.toNanos();
+    }
+
+    /**
+     * Inside a transaction, the increment is its last statement, so it commits or rolls back with the
+     * change and holds the row lock only while committing; without one, it runs in a transaction of its own.
+     */
+    public void bump() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            ownTransaction.executeWithoutResult(status -> increment());
+            eTag = null;
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                increment();
+            }
+
+            @Override
+            public void afterCommit() {
+                eTag = null;
+            }
+        });
+    }
+
+    /**
+     * Read before loading the data it validates, so a change committed in between can only make
+     * the ETag older than the data, never newer.
+     */
+    public String eTag() {
+        ETag current = eTag;
+        long now = System.nanoTime();
+        if (current == null || now - current.readAt() >= refreshNanos) {
+            Long version = jdbcTemplate.queryForObject("select version from catalog_version where id = 1", Long.class);
+            current = new ETag(now, "\"" + version + "\"");
+            eTag = current;
+        }
+        return current.value();
+    }
+
+    private void increment() {
+        jdbcTemplate.update("update catalog_version set version = version + 1 where id = 1");
+    }
+
+    private record ETag(long readAt, String value) {
+    }
+}
@@ -0,0 +1,219 @@
+package learning.hotelbackend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues booking ids, and the confirmation codes derived from them, without a database round trip.
+ * <p>
+ * An id is a 53-bit Snowflake-style number (so it stays exact in JavaScript clients): 37 bits of
+ * 10 ms ticks since 2025-01-01, good until 2068, then a 6-bit node id ({@code hotel.node-id}, which
+ * must differ between running instances) and a 10-bit sequence within the tick.
+ * <p>
+ * The code is the id put through a keyed permutation ({@code hotel.confirmation-code.secret}), so
+ * consecutive bookings do not get guessable codes, written as 11 Crockford base32 characters plus a
+ * Luhn mod 32 check character. {@link #decode} reverses both steps, so a lookup by code is a
+ * primary-key lookup.
+ */
+@Component
+public class ConfirmationCodeGenerator {
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final long TICK_MILLIS = 10;
+    static final int TIME_BITS = 37;
+    static final int NODE_BITS = 6;
+    static final int SEQUENCE_BITS = 10;
+    static final int ID_BITS = TIME_BITS + NODE_BITS + SEQUENCE_BITS;
+    static final int CODE_LENGTH = 12;
+
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long ID_LIMIT = 1L << ID_BITS;
+    // The permutation is a Feistel network over two 27-bit halves, i.e. over 54 bits.
+    private static final int HALF_BITS = (ID_BITS + 1) / 2;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = i;
+        }
+        // Crockford's aliases for characters that are easily misread.
+        VALUES['O'] = VALUES['o'] = 0;
+        VALUES['I'] = VALUES['i'] = VALUES['L'] = VALUES['l'] = 1;
+    }
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final Mac prototype;
+    // Last issued tick and sequence, packed as (tick << SEQUENCE_BITS | sequence).
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public ConfirmationCodeGenerator(@Value("${hotel.node-id:0}") int nodeId,
+                                     @Value("${hotel.confirmation-code.secret}") String secret) {
+        this(nodeId, Base64.getDecoder().decode(secret), System::currentTimeMillis);
+    }
+
+    ConfirmationCodeGenerator(int nodeId, byte[] secret, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("hotel.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        if (secret.length < 16) {
+            throw new IllegalArgumentException("hotel.confirmation-code.secret must be at least 16 bytes");
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(secret, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+
+    /**
+     * Next booking id of this node. Ids only move forward: when the clock stands still or goes back,
+     * the sequence keeps counting and overflows into the following tick instead of waiting.
+     */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) / TICK_MILLIS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = now > previous >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : previous + 1;
+        } while (!last.compareAndSet(previous, next));
+        long tick = next >>> SEQUENCE_BITS;
+        if (tick < 0 || tick >= 1L << TIME_BITS) {
+            throw new IllegalStateException("Booking id clock is outside the supported range");
+        }
+        return tick << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS | next & SEQUENCE_MASK;
+    }
+
+    public String encode(long bookingId) {
+        if (bookingId < 0 || bookingId >= ID_LIMIT) {
+            throw new IllegalArgumentException("Not a generated booking id: " + bookingId);
+        }
+        long value = permute(newMac(), bookingId, true);
+        int[] digits = new int[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 2; i >= 0; i--) {
+            digits[i] = (int) (value & 31);
+            value >>>= 5;
+        }
+        digits[CODE_LENGTH - 1] = checkDigit(digits);
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            code[i] = ALPHABET[digits[i]];
+        }
+        return new String(code);
+    }
+
+    /**
+     * Booking id of a code produced by {@link #encode}, or empty when the input is not such a code
+     * (wrong length or characters, failed check character, e.g. a legacy numeric code). Case,
+     * hyphens, spaces and the O/0 and I/L/1 mix-ups are tolerated.
+     */
+    public Optional<Long> decode(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        int[] digits = new int[CODE_LENGTH];
+        int length = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            int digit = c < VALUES.length ? VALUES[c] : -1;
+            if (digit < 0 || length == CODE_LENGTH) {
+                return Optional.empty();
+            }
+            digits[length++] = digit;
+        }
+        if (length != CODE_LENGTH || checkDigit(digits) != digits[CODE_LENGTH - 1]) {
+            return Optional.empty();
+        }
+        long value = 0;
+        for (int i = 0; i < CODE_LENGTH - 1; i++) {
+            value = value << 5 | digits[i];
+        }
+        if (value >= ID_LIMIT) {
+            return Optional.empty();
+        }
+        return Optional.of(permute(newMac(), value, false));
+    }
+
+    // Luhn mod 32 over the data characters: catches every single-character error and most adjacent swaps.
+    private static int checkDigit(int[] digits) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = CODE_LENGTH - 2; i >= 0; i--) {
+            int addend = factor * digits[i];
+            sum += addend / 32 + addend % 32;
+            factor = factor == 2 ? 1 : 2;
+        }
+        return (32 - sum % 32) % 32;
+    }
+
+    // The Feistel network permutes 54-bit values; cycle walking keeps it a permutation of the 53-bit ids.
+    private static long permute(Mac mac, long value, boolean forward) {
+        do {
+            value = forward ? encrypt(mac, value) : decrypt(mac, value);
+        } while (value >= ID_LIMIT);
+        return value;
+    }
+
+    private static long encrypt(Mac mac, long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long mixed = left ^ roundFunction(mac, round, right);
+            left = right;
+            right = mixed;
+        }
+        return left << HALF_BITS | right;
+    }
+
+    private static long decrypt(Mac mac, long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long mixed = right ^ roundFunction(mac, round, left);
+            right = left;
+            left = mixed;
+        }
+        return left << HALF_BITS | right;
+    }
+
+    private static long roundFunction(Mac mac, int round, long half) {
+        byte[] hash = mac.doFinal(new byte[]{
+                (byte) round, (byte) (half >>> 24), (byte) (half >>> 16), (byte) (half >>> 8), (byte) half});
+        return ((hash[0] & 0xFFL) << 24 | (hash[1] & 0xFFL) << 16 | (hash[2] & 0xFFL) << 8 | hash[3] & 0xFFL)
+                & HALF_MASK;
+    }
+
+    // Mac is not thread-safe; a clone of the keyed prototype skips the provider lookup and key setup.
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " cannot be cloned", e);
+        }
+    }
+}
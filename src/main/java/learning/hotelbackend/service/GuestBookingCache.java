@@ -0,0 +1,63 @@
+package learning.hotelbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of "my bookings" pages, keyed by guest email hash with the guest's pages inside the
+ * entry, so a guest reloading the page does not query again and a booking change evicts one entry.
+ * Booking changes on this instance evict the guest's pages after commit; changes made on other instances
+ * show up once the pages expire ({@code hotel.guest-bookings.cache-ttl}, zero disables the cache).
+ */
+@Component
+public class GuestBookingCache {
+    private final Cache<Long, Map<Pageable, List<BookingSummary>>> pagesByGuest;
+
+    public GuestBookingCache(@Value("${hotel.guest-bookings.cache-ttl:PT30S}") Duration ttl,
+                             @Value("${hotel.guest-bookings.cache-size:10000}") long maximumSize) {
+        // Weighed by page count, so hotel.guest-bookings.cache-size bounds the pages held, however many a
+        // guest asks for. Pages added later expire with the guest's first one, never after their own ttl.
+        this.pagesByGuest = ttl.isZero() ? null : Caffeine.newBuilder()
+                .maximumWeight(maximumSize)
+                .weigher((Long emailHash, Map<Pageable, List<BookingSummary>> pages) -> pages.size())
+                .expireAfter(Expiry.<Long, Map<Pageable, List<BookingSummary>>>creating((emailHash, pages) -> ttl))
+                .build();
+    }
+
+    public List<BookingSummary> get(Long emailHash, Pageable pageable, Supplier<List<BookingSummary>> loader) {
+        if (pagesByGuest == null || emailHash == null) {
+            return loader.get();
+        }
+        Map<Pageable, List<BookingSummary>> cached = pagesByGuest.getIfPresent(emailHash);
+        if (cached != null && cached.containsKey(pageable)) {
+            return cached.get(pageable);
+        }
+        // Loaded while holding the guest's entry, so an eviction for the guest waits for the load to finish
+        // and then removes its result, rather than being overtaken by it.
+        return pagesByGuest.asMap().compute(emailHash, (hash, pages) -> {
+            if (pages != null && pages.containsKey(pageable)) {
+                return pages;
+            }
+            Map<Pageable, List<BookingSummary>> updated = pages == null ? new HashMap<>() : new HashMap<>(pages);
+            updated.put(pageable, loader.get());
+            return Map.copyOf(updated);
+        }).get(pageable);
+    }
+
+    public void evict(Long emailHash) {
+        if (pagesByGuest != null && emailHash != null) {
+            pagesByGuest.invalidate(emailHash);
+        }
+    }
+}
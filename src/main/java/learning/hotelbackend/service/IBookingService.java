@@ -1,19 +1,35 @@
 package learning.hotelbackend.service;
 
 import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.BulkItemResult;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import learning.hotelbackend.request.BulkBookingRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface IBookingService {
     void cancelBooking(Long bookingId);
 
     List<BookedRoom> getAllBookingsByRoomId(Long roomId);
 
+    Map<Long, List<BookedRoom>> getAllBookingsByRoomIds(Collection<Long> roomIds);
+
     String saveBooking(Long roomId, BookedRoom bookingRequest);
 
+    // One result per request, in request order; rejected items do not stop the others.
+    List<BulkItemResult> saveBookings(List<BulkBookingRequest> bookingRequests);
+
     BookedRoom findByBookingConfirmationCode(String confirmationCode);
 
     List<BookedRoom> getAllBookings();
 
-    List<BookedRoom> getBookingsByUserEmail(String email);
+    List<BookedRoom> getBookings(Long lastSeenId, int limit);
+
+    void exportAllBookings(Consumer<BookingSummary> consumer);
+
+    List<BookingSummary> getBookingsByUserEmail(String email, Pageable pageable);
 }
@@ -1,6 +1,11 @@
 package learning.hotelbackend.service;
 
+import learning.hotelbackend.model.BulkItemResult;
 import learning.hotelbackend.model.Room;
+import learning.hotelbackend.model.RoomMetadata;
+import learning.hotelbackend.request.RoomImportRequest;
+import learning.hotelbackend.storage.PhotoVariant;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -12,18 +17,36 @@ public interface IRoomService {
     // 1. Removed "throws SQLException, IOException". The implementation should handle these.
     Room addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice);
 
+    // Rooms without photos, one result per request in request order.
+    List<BulkItemResult> addRooms(List<RoomImportRequest> roomRequests);
+
     List<String> getAllRoomTypes();
 
-    List<Room> getAllRooms();
+    List<String> getRoomTypesByPrefix(String prefix);
+
+    List<RoomMetadata> getAllRooms();
+
+    List<RoomMetadata> getRooms(Long lastSeenId, int limit);
 
     // 1. Removed "throws SQLException".
     byte[] getRoomPhotoByRoomId(Long roomId);
 
+    Resource loadPhoto(String photoHash);
+
+    // A photo still in the legacy room_photo table, read without moving it to photo storage.
+    Optional<Resource> loadLegacyPhoto(Long roomId);
+
+    Optional<Resource> findPhotoVariant(String photoHash, PhotoVariant variant);
+
     void deleteRoom(Long roomId);
 
-    Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, byte[] photoBytes);
+    Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, MultipartFile photo);
+
+    Optional<RoomMetadata> getRoomMetadata(Long roomId);
+
+    Optional<Room> getRoomWithPhotoMetadata(Long roomId);
 
-    Optional<Room> getRoomById(Long roomId);
+    List<RoomMetadata> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
 
-    List<Room> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+    boolean isAvailabilityIndexConsistent(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import java.util.List;
 public interface IUserService {
     User registerUser(User user);
     List<User> getUsers();
+    List<User> getUsers(Long lastSeenId, int limit);
     void deleteUser(String email);
     User getUser(String email);
 }
@@ -0,0 +1,203 @@
+package learning.hotelbackend.service;
+
+import learning.hotelbackend.model.DailyOccupancy;
+import learning.hotelbackend.model.OccupancySummary;
+import learning.hotelbackend.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-night, per-room-type booking counters (rooms occupied, guests, room revenue), kept up to date
+ * as bookings are committed or cancelled. A report over a date range reads one entry per day and
+ * room type, however many bookings there are. {@link #rebuild()} recomputes everything from the
+ * booking table; run it after changing a room's type or price, or deleting a room, to restate history.
+ */
+@Component
+public class OccupancyRollup {
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyRollup.class);
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile ConcurrentNavigableMap<LocalDate, Map<String, DayTotals>> days = new ConcurrentSkipListMap<>();
+    // Guards the swap at the end of a rebuild against concurrent updates; only held briefly.
+    private final Lock updateLock = new ReentrantLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    // Updates made while a rebuild is reading the booking table; null when no rebuild is running.
+    private List<BookingChange> changesDuringRebuild;
+
+    public OccupancyRollup(BookingRepository bookingRepository, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void addBooking(Long bookingId, LocalDate checkInDate, LocalDate checkOutDate,
+                           String roomType, BigDecimal roomPrice, int guests) {
+        record(new BookingChange(bookingId, checkInDate, checkOutDate, roomType, toCents(roomPrice), guests, 1));
+    }
+
+    public void removeBooking(Long bookingId, LocalDate checkInDate, LocalDate checkOutDate,
+                              String roomType, BigDecimal roomPrice, int guests) {
+        record(new BookingChange(bookingId, checkInDate, checkOutDate, roomType, toCents(roomPrice), guests, -1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes the counters from the booking table and swaps them in. Bookings saved or cancelled
+     * while the table is read are replayed onto the new counters by their net effect, so each ends up
+     * counted once or not at all. Returns false without doing anything if another rebuild is running.
+     */
+    public boolean rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return false;
+        }
+        try {
+            long start = System.nanoTime();
+            updateLock.lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                updateLock.unlock();
+            }
+
+            ConcurrentNavigableMap<LocalDate, Map<String, DayTotals>> rebuilt = new ConcurrentSkipListMap<>();
+            Set<Long> bookingIds = new HashSet<>();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                bookingRepository.forEachBookingSummary(booking -> {
+                    bookingIds.add(booking.getId());
+                    apply(rebuilt, new BookingChange(booking.getId(), booking.getCheckInDate(),
+                            booking.getCheckOutDate(), booking.getRoomType(), toCents(booking.getRoomPrice()),
+                            booking.getTotalNumOfGuests(), 1));
+                });
+            });
+
+            updateLock.lock();
+            try {
+                // A booking can be saved and cancelled during one read, so each is replayed by its net change:
+                // it ends up counted once if that is positive, otherwise not at all, whatever the read saw.
+                Map<Long, BookingChange> netChanges = new LinkedHashMap<>();
+                for (BookingChange change : changesDuringRebuild) {
+                    netChanges.merge(change.bookingId(), change, (first, next) -> first.withSign(first.sign() + next.sign()));
+                }
+                for (BookingChange change : netChanges.values()) {
+                    int counted = bookingIds.contains(change.bookingId()) ? 1 : 0;
+                    int delta = Math.max(0, Math.min(1, change.sign())) - counted;
+                    if (delta != 0) {
+                        apply(rebuilt, change.withSign(delta));
+                    }
+                }
+                changesDuringRebuild = null;
+                days = rebuilt;
+            } finally {
+                updateLock.unlock();
+            }
+            logger.info("Occupancy rollup rebuilt from {} bookings in {} ms",
+                    bookingIds.size(), (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * One entry per day and room type in [from, to] with at least one booked night, ordered by day.
+     * {@code roomType} filters case-insensitively; null means all types.
+     */
+    public List<DailyOccupancy> getDailyOccupancy(LocalDate from, LocalDate to, String roomType) {
+        List<DailyOccupancy> result = new ArrayList<>();
+        days.subMap(from, true, to, true).forEach((date, totalsByType) ->
+                new TreeMap<>(totalsByType).forEach((type, totals) -> {
+                    if ((roomType == null || type.equalsIgnoreCase(roomType)) && totals.roomsOccupied.sum() > 0) {
+                        result.add(new DailyOccupancy(date, type, totals.roomsOccupied.sum(),
+                                totals.guests.sum(), BigDecimal.valueOf(totals.revenueCents.sum(), 2)));
+                    }
+                }));
+        return result;
+    }
+
+    public List<OccupancySummary> getSummary(LocalDate from, LocalDate to, String roomType) {
+        Map<String, long[]> totalsByType = new TreeMap<>();
+        for (DailyOccupancy day : getDailyOccupancy(from, to, roomType)) {
+            long[] totals = totalsByType.computeIfAbsent(day.roomType(), type -> new long[3]);
+            totals[0] += day.roomsOccupied();
+            totals[1] += day.guests();
+            totals[2] += day.revenue().unscaledValue().longValueExact();
+        }
+        List<OccupancySummary> result = new ArrayList<>(totalsByType.size());
+        totalsByType.forEach((type, totals) ->
+                result.add(new OccupancySummary(type, totals[0], totals[1], BigDecimal.valueOf(totals[2], 2))));
+        return result;
+    }
+
+    private void record(BookingChange change) {
+        if (change.checkInDate() == null || change.checkOutDate() == null || change.roomType() == null) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            apply(days, change);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // A booking occupies the nights from check-in up to, not including, check-out.
+    private static void apply(ConcurrentNavigableMap<LocalDate, Map<String, DayTotals>> target, BookingChange change) {
+        for (LocalDate night = change.checkInDate(); night.isBefore(change.checkOutDate()); night = night.plusDays(1)) {
+            DayTotals totals = target.computeIfAbsent(night, date -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(change.roomType(), type -> new DayTotals());
+            totals.roomsOccupied.add(change.sign());
+            totals.guests.add((long) change.sign() * change.guests());
+            totals.revenueCents.add(change.sign() * change.priceCents());
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private record BookingChange(Long bookingId, LocalDate checkInDate, LocalDate checkOutDate,
+                                 String roomType, long priceCents, int guests, int sign) {
+        BookingChange withSign(int newSign) {
+            return new BookingChange(bookingId, checkInDate, checkOutDate, roomType, priceCents, guests, newSign);
+        }
+    }
+
+    private static final class DayTotals {
+        private final LongAdder roomsOccupied = new LongAdder();
+        private final LongAdder guests = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+    }
+}
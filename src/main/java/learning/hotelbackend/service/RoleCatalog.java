@@ -0,0 +1,52 @@
+package learning.hotelbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import learning.hotelbackend.model.Role;
+import learning.hotelbackend.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the role table as ready-made authorities, so a login maps its user's role ids to
+ * authorities without loading Role entities. RoleService keeps it current; ids it has not seen yet
+ * are looked up once.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleCatalog {
+    private final RoleRepository roleRepository;
+
+    private final Map<Long, GrantedAuthority> authoritiesById = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        roleRepository.findAll().forEach(this::remember);
+    }
+
+    /**
+     * @return the authority of the role, or null if there is no such role
+     */
+    public GrantedAuthority authority(Long roleId) {
+        GrantedAuthority authority = authoritiesById.get(roleId);
+        if (authority != null) {
+            return authority;
+        }
+        // Possibly created by another instance since this one loaded.
+        return roleRepository.findById(roleId).map(this::remember).orElse(null);
+    }
+
+    public GrantedAuthority remember(Role role) {
+        GrantedAuthority authority = new SimpleGrantedAuthority(role.getName());
+        authoritiesById.put(role.getId(), authority);
+        return authority;
+    }
+
+    public void forget(Long roleId) {
+        authoritiesById.remove(roleId);
+    }
+}
@@ -5,6 +5,7 @@ import learning.hotelbackend.model.Role;
 import learning.hotelbackend.model.User;
 import learning.hotelbackend.repository.RoleRepository;
 import learning.hotelbackend.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,9 +15,11 @@ import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "hotel.service", histogram = true)
 public class RoleService implements IRoleService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
+    private final RoleCatalog roleCatalog;
 
     @Override
     public List<Role> getRoles() {
@@ -30,13 +33,16 @@ public class RoleService implements IRoleService {
         if (roleRepository.existsByName(roleName)) {
             throw new RoleAlreadyExistException(theRole.getName() + " role already exists");
         }
-        return roleRepository.save(role);
+        Role savedRole = roleRepository.save(role);
+        roleCatalog.remember(savedRole);
+        return savedRole;
     }
 
     @Override
     public void deleteRole(Long roleId) {
         this.removeAllUsersFromRole(roleId);
         roleRepository.deleteById(roleId);
+        roleCatalog.forget(roleId);
     }
 
     @Override
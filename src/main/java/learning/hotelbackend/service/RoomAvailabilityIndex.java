@@ -0,0 +1,252 @@
+package learning.hotelbackend.service;
+
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory, per-room occupancy index used to answer availability searches without
+ * scanning the booking table. Each room keeps its stays sorted by check-in day, so a
+ * search only visits the stays that can overlap the requested window, and a search for one room
+ * type only visits the rooms of that type.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, RoomOccupancy> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, Long> roomIdByBookingId = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Long>> roomIdsByTypeId = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private final Lock loadLock = new ReentrantLock();
+    // Changes committed before the index has loaded, replayed over the snapshot; null once loaded.
+    private List<Runnable> changesDuringLoad = new ArrayList<>();
+
+    /**
+     * Reads all rooms and stays, then replays, in order, every change that arrived meanwhile. A booking
+     * cancelled or a room deleted while the snapshot was read is therefore gone from the index even if
+     * the snapshot still had it; changes the snapshot already contains are applied twice, to no effect.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        for (Object[] row : roomRepository.findAllRoomTypeIdsById()) {
+            applyPutRoom((Long) row[0], (Integer) row[1]);
+        }
+        for (Object[] row : bookingRepository.findAllStays()) {
+            applyAddBooking((Long) row[0], (Long) row[1], (LocalDate) row[2], (LocalDate) row[3]);
+        }
+        int replayed;
+        loadLock.lock();
+        try {
+            replayed = changesDuringLoad.size();
+            changesDuringLoad.forEach(Runnable::run);
+            changesDuringLoad = null;
+            loaded = true;
+        } finally {
+            loadLock.unlock();
+        }
+        logger.info("Availability index loaded {} rooms and {} bookings ({} changes replayed) in {} ms",
+                rooms.size(), roomIdByBookingId.size(), replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void putRoom(Long roomId, Integer roomTypeId) {
+        record(() -> applyPutRoom(roomId, roomTypeId));
+    }
+
+    public void removeRoom(Long roomId) {
+        record(() -> applyRemoveRoom(roomId));
+    }
+
+    public void addBooking(Long roomId, Long bookingId, LocalDate checkInDate, LocalDate checkOutDate) {
+        record(() -> applyAddBooking(roomId, bookingId, checkInDate, checkOutDate));
+    }
+
+    public void removeBooking(Long bookingId) {
+        record(() -> applyRemoveBooking(bookingId));
+    }
+
+    /**
+     * Mirrors {@code RoomRepository.findAvailableRoomsByDatesAndType} (or {@code findAvailableRoomsByDates}
+     * when {@code roomTypeId} is null): rooms of that type with no stay touching [checkIn, checkOut].
+     */
+    public List<Long> findAvailableRoomIds(LocalDate checkInDate, LocalDate checkOutDate, Integer roomTypeId) {
+        long from = checkInDate.toEpochDay();
+        long to = checkOutDate.toEpochDay();
+        Iterable<Long> candidates = roomTypeId == null ? rooms.keySet() : roomIdsOfType(roomTypeId);
+        List<Long> available = new ArrayList<>();
+        for (Long roomId : candidates) {
+            RoomOccupancy occupancy = rooms.get(roomId);
+            if (occupancy != null && !occupancy.overlaps(from, to)) {
+                available.add(roomId);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Compares the index with the SQL availability query for the same search and logs any difference.
+     */
+    public boolean isConsistentWithDatabase(LocalDate checkInDate, LocalDate checkOutDate, Integer roomTypeId) {
+        Set<Long> fromIndex = new HashSet<>(findAvailableRoomIds(checkInDate, checkOutDate, roomTypeId));
+        Set<Long> fromDatabase = new HashSet<>();
+        (roomTypeId == null
+                ? roomRepository.findAvailableRoomsByDates(checkInDate, checkOutDate)
+                : roomRepository.findAvailableRoomsByDatesAndType(checkInDate, checkOutDate, roomTypeId))
+                .forEach(room -> fromDatabase.add(room.id()));
+        if (fromIndex.equals(fromDatabase)) {
+            return true;
+        }
+        Set<Long> indexOnly = new HashSet<>(fromIndex);
+        indexOnly.removeAll(fromDatabase);
+        fromDatabase.removeAll(fromIndex);
+        logger.warn("Availability index mismatch for {} - {} ({}): index only {}, database only {}",
+                checkInDate, checkOutDate, roomTypeId, indexOnly, fromDatabase);
+        return false;
+    }
+
+    private void record(Runnable change) {
+        if (loaded) {
+            change.run();
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(change);
+            }
+            change.run();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void applyPutRoom(Long roomId, Integer roomTypeId) {
+        RoomOccupancy occupancy = rooms.computeIfAbsent(roomId, id -> new RoomOccupancy());
+        Integer previousTypeId = occupancy.roomTypeId;
+        occupancy.roomTypeId = roomTypeId;
+        if (previousTypeId != null && !previousTypeId.equals(roomTypeId)) {
+            roomIdsOfType(previousTypeId).remove(roomId);
+        }
+        if (roomTypeId != null) {
+            roomIdsOfType(roomTypeId).add(roomId);
+        }
+    }
+
+    private void applyRemoveRoom(Long roomId) {
+        RoomOccupancy occupancy = rooms.remove(roomId);
+        if (occupancy != null && occupancy.roomTypeId != null) {
+            roomIdsOfType(occupancy.roomTypeId).remove(roomId);
+        }
+        roomIdByBookingId.values().removeIf(roomId::equals);
+    }
+
+    private void applyAddBooking(Long roomId, Long bookingId, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (roomId == null || bookingId == null || checkInDate == null || checkOutDate == null) {
+            return;
+        }
+        rooms.computeIfAbsent(roomId, id -> new RoomOccupancy())
+                .add(new Stay(bookingId, checkInDate.toEpochDay(), checkOutDate.toEpochDay()));
+        roomIdByBookingId.put(bookingId, roomId);
+    }
+
+    private void applyRemoveBooking(Long bookingId) {
+        Long roomId = roomIdByBookingId.remove(bookingId);
+        RoomOccupancy occupancy = roomId != null ? rooms.get(roomId) : null;
+        if (occupancy != null) {
+            occupancy.remove(bookingId);
+        }
+    }
+
+    private Set<Long> roomIdsOfType(Integer roomTypeId) {
+        return roomIdsByTypeId.computeIfAbsent(roomTypeId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    private record Stay(long bookingId, long checkIn, long checkOut) {
+    }
+
+    private static final class RoomOccupancy {
+        private static final Comparator<Stay> BY_CHECK_IN =
+                Comparator.comparingLong(Stay::checkIn).thenComparingLong(Stay::bookingId);
+
+        // A lock rather than synchronized: blocking inside synchronized pins virtual threads on Java 21,
+        // and searches (reads) far outnumber booking changes (writes).
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile Integer roomTypeId;
+        private final NavigableSet<Stay> stays = new TreeSet<>(BY_CHECK_IN);
+        private final Map<Long, Stay> staysByBookingId = new HashMap<>();
+        // Longest stay seen so far; bounds how far back a search has to look.
+        private long longestStay;
+
+        void add(Stay stay) {
+            lock.writeLock().lock();
+            try {
+                Stay previous = staysByBookingId.put(stay.bookingId(), stay);
+                if (previous != null) {
+                    stays.remove(previous);
+                }
+                stays.add(stay);
+                longestStay = Math.max(longestStay, stay.checkOut() - stay.checkIn());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long bookingId) {
+            lock.writeLock().lock();
+            try {
+                Stay stay = staysByBookingId.remove(bookingId);
+                if (stay != null) {
+                    stays.remove(stay);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean overlaps(long from, long to) {
+            lock.readLock().lock();
+            try {
+                Stay lower = new Stay(Long.MIN_VALUE, from - longestStay, Long.MIN_VALUE);
+                Stay upper = new Stay(Long.MAX_VALUE, to, Long.MAX_VALUE);
+                for (Stay stay : stays.subSet(lower, true, upper, true)) {
+                    if (stay.checkOut() >= from) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
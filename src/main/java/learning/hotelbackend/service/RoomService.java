@@ -1,105 +1,285 @@
 package learning.hotelbackend.service;
 import learning.hotelbackend.exception.InternalServerException;
 import learning.hotelbackend.exception.ResourceNotFoundException;
+import learning.hotelbackend.metrics.HotelMetrics;
+import learning.hotelbackend.model.BulkItemResult;
 import learning.hotelbackend.model.Room;
+import learning.hotelbackend.model.RoomMetadata;
+import learning.hotelbackend.model.RoomType;
 import learning.hotelbackend.repository.RoomRepository;
+import learning.hotelbackend.request.RoomImportRequest;
+import learning.hotelbackend.storage.LegacyPhotoMigrator;
+import learning.hotelbackend.storage.PhotoStorage;
+import learning.hotelbackend.storage.PhotoVariant;
+import learning.hotelbackend.storage.PhotoVariantGenerator;
+import learning.hotelbackend.storage.StoredPhoto;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.sql.rowset.serial.SerialBlob;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.sql.Blob;
-import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "hotel.service", histogram = true)
 public class RoomService implements IRoomService {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomTypeCatalog roomTypeCatalog;
+    private final PhotoStorage photoStorage;
+    private final PhotoVariantGenerator photoVariantGenerator;
+    private final LegacyPhotoMigrator legacyPhotoMigrator;
+    private final HotelMetrics hotelMetrics;
+    private final CatalogVersion catalogVersion;
 
     @Override
+    @Transactional
     public Room addNewRoom(MultipartFile file, String roomType, BigDecimal roomPrice) {
         Room room = new Room();
-        room.setRoomType(roomType);
+        setRoomType(room, roomType);
         room.setRoomPrice(roomPrice);
-        if (!file.isEmpty()) {
-            try {
-                byte[] photoBytes = file.getBytes();
-                Blob photoBlob = new SerialBlob(photoBytes);
-                room.setPhoto(photoBlob);
-            } catch (IOException | SQLException e) {
-                // 3. Handle low-level exceptions
-                throw new InternalServerException("Error creating a new room: " + e.getMessage());
+        if (file != null && !file.isEmpty()) {
+            storePhoto(room, file);
+        }
+        Room savedRoom = roomRepository.save(room);
+        catalogVersion.bump();
+        afterCommit(() -> availabilityIndex.putRoom(savedRoom.getId(), savedRoom.getRoomTypeId()));
+        return savedRoom;
+    }
+
+    // One transaction for the room types it creates and the rooms, so a failed import leaves neither behind.
+    @Override
+    @Transactional
+    public List<BulkItemResult> addRooms(List<RoomImportRequest> roomRequests) {
+        BulkItemResult[] results = new BulkItemResult[roomRequests.size()];
+        List<Room> rooms = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        // Each type is looked up, and its row locked, once per import rather than once per room.
+        Map<String, RoomType> types = new HashMap<>();
+        for (int i = 0; i < roomRequests.size(); i++) {
+            RoomImportRequest request = roomRequests.get(i);
+            if (request == null || request.getRoomType() == null || request.getRoomType().isBlank()) {
+                results[i] = BulkItemResult.rejected(i, "Room type is required");
+            } else if (request.getRoomPrice() == null || request.getRoomPrice().signum() < 0) {
+                results[i] = BulkItemResult.rejected(i, "Room price must be zero or more");
+            } else {
+                Room room = new Room();
+                setRoomType(room, types.computeIfAbsent(request.getRoomType(), roomTypeCatalog::findOrCreate));
+                room.setRoomPrice(request.getRoomPrice());
+                rooms.add(room);
+                indexes.add(i);
             }
         }
-        return roomRepository.save(room);
+        // Room ids are assigned in-process, so the inserts go out in JDBC batches.
+        List<Room> savedRooms = roomRepository.saveAll(rooms);
+        for (int j = 0; j < savedRooms.size(); j++) {
+            results[indexes.get(j)] = BulkItemResult.created(indexes.get(j), savedRooms.get(j).getId(), null);
+        }
+        if (!savedRooms.isEmpty()) {
+            catalogVersion.bump();
+            afterCommit(() ->
+                    savedRooms.forEach(savedRoom -> availabilityIndex.putRoom(savedRoom.getId(), savedRoom.getRoomTypeId())));
+        }
+        return List.of(results);
     }
 
     @Override
     public List<String> getAllRoomTypes() {
-        return roomRepository.findDistinctRoomTypes();
+        return roomTypeCatalog.getAllNames();
+    }
+
+    @Override
+    public List<String> getRoomTypesByPrefix(String prefix) {
+        return roomTypeCatalog.findNamesByPrefix(prefix);
+    }
+
+    @Override
+    public List<RoomMetadata> getAllRooms() {
+        return roomRepository.findAllMetadata();
     }
 
     @Override
-    public List<Room> getAllRooms() {
-        return roomRepository.findAll();
+    public List<RoomMetadata> getRooms(Long lastSeenId, int limit) {
+        return roomRepository.findMetadataAfter(
+                lastSeenId != null ? lastSeenId : 0L, Limit.of(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE)));
     }
 
     @Override
     public byte[] getRoomPhotoByRoomId(Long roomId) {
-        Room room = roomRepository.findById(roomId)
+        Room room = getRoomWithPhotoMetadata(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Sorry, Room not found!"));
+        if (room.getPhotoHash() == null) {
+            return legacyPhotoMigrator.read(roomId).orElse(null);
+        }
+        try (InputStream in = loadPhoto(room.getPhotoHash()).getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            // 3. Handle low-level exceptions
+            throw new InternalServerException("Error retrieving room photo: " + e.getMessage());
+        }
+    }
 
-        Blob photoBlob = room.getPhoto();
-        if (photoBlob != null) {
-            try {
-                return photoBlob.getBytes(1, (int) photoBlob.length());
-            } catch (SQLException e) {
-                // 3. Handle low-level exceptions
-                throw new InternalServerException("Error retrieving room photo: " + e.getMessage());
-            }
+    @Override
+    public Resource loadPhoto(String photoHash) {
+        return photoStorage.load(photoHash);
+    }
+
+    @Override
+    public Optional<Resource> loadLegacyPhoto(Long roomId) {
+        return legacyPhotoMigrator.read(roomId).map(ByteArrayResource::new);
+    }
+
+    @Override
+    public Optional<Resource> findPhotoVariant(String photoHash, PhotoVariant variant) {
+        if (photoStorage.variantExists(photoHash, variant)) {
+            return Optional.of(photoStorage.loadVariant(photoHash, variant));
         }
-        return null;
+        // Not rendered yet (still queued, dropped from a full queue, or stored before variants existed).
+        photoVariantGenerator.generateAsync(photoHash);
+        return Optional.empty();
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = "roomMetadata", key = "#roomId")
     public void deleteRoom(Long roomId) {
         Optional<Room> theRoom = roomRepository.findById(roomId);
         if (theRoom.isPresent()) {
-            roomRepository.deleteById(roomId);
+            // delete(room), not deleteById(roomId), which would load the room a second time.
+            roomRepository.delete(theRoom.get());
+            removeRoomTypeIfUnused(theRoom.get().getRoomTypeId());
+            catalogVersion.bump();
+            afterCommit(() -> availabilityIndex.removeRoom(roomId));
         }
     }
 
     @Override
-    public Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, byte[] photoBytes) {
+    @Transactional
+    @CacheEvict(cacheNames = "roomMetadata", key = "#roomId")
+    public Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, MultipartFile photo) {
         // 1. CRITICAL FIX: Use orElseThrow for safe lookup
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with ID: " + roomId));
 
-        if (roomType != null) room.setRoomType(roomType);
+        Integer previousTypeId = room.getRoomTypeId();
+        if (roomType != null && !roomType.isBlank()) setRoomType(room, roomType);
         if (roomPrice != null) room.setRoomPrice(roomPrice);
-        if (photoBytes != null && photoBytes.length > 0) {
-            try {
-                room.setPhoto(new SerialBlob(photoBytes));
-            } catch (SQLException ex) {
-                throw new InternalServerException("Error updating room photo");
-            }
+        if (photo != null && !photo.isEmpty()) {
+            storePhoto(room, photo);
+            room.setLegacyPhoto(null);
+        }
+        Room savedRoom = roomRepository.save(room);
+        if (previousTypeId != null && !previousTypeId.equals(savedRoom.getRoomTypeId())) {
+            removeRoomTypeIfUnused(previousTypeId);
         }
-        return roomRepository.save(room);
+        catalogVersion.bump();
+        afterCommit(() -> availabilityIndex.putRoom(savedRoom.getId(), savedRoom.getRoomTypeId()));
+        return savedRoom;
     }
 
     @Override
-    public Optional<Room> getRoomById(Long roomId) {
-        // 2. CRITICAL FIX: Correctly return the Optional from the repository
+    public Optional<Room> getRoomWithPhotoMetadata(Long roomId) {
         return roomRepository.findById(roomId);
     }
 
     @Override
-    public List<Room> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
-        return roomRepository.findAvailableRoomsByDatesAndType(checkInDate, checkOutDate, roomType);
+    @Cacheable(cacheNames = "roomMetadata", key = "#roomId", unless = "#result == null")
+    public Optional<RoomMetadata> getRoomMetadata(Long roomId) {
+        return roomRepository.findMetadataById(roomId);
+    }
+
+    @Override
+    public List<RoomMetadata> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
+        long start = System.nanoTime();
+        // Until the index has finished loading at startup, fall back to the SQL query.
+        boolean fromIndex = availabilityIndex.isLoaded();
+        List<RoomMetadata> rooms = findAvailableRooms(checkInDate, checkOutDate, roomType, fromIndex);
+        hotelMetrics.availabilitySearch(fromIndex, System.nanoTime() - start);
+        return rooms;
+    }
+
+    private List<RoomMetadata> findAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType,
+                                          boolean fromIndex) {
+        // A blank type searches all rooms; an unknown type matches none.
+        Optional<RoomType> type = roomTypeCatalog.find(roomType);
+        if (type.isEmpty() && !RoomTypeCatalog.normalize(roomType).isEmpty()) {
+            return List.of();
+        }
+        Integer roomTypeId = type.map(RoomType::getId).orElse(null);
+        if (!fromIndex) {
+            return roomTypeId == null
+                    ? roomRepository.findAvailableRoomsByDates(checkInDate, checkOutDate)
+                    : roomRepository.findAvailableRoomsByDatesAndType(checkInDate, checkOutDate, roomTypeId);
+        }
+        List<Long> roomIds = availabilityIndex.findAvailableRoomIds(checkInDate, checkOutDate, roomTypeId);
+        return roomIds.isEmpty() ? List.of() : roomRepository.findMetadataByIdIn(roomIds);
+    }
+
+    @Override
+    public boolean isAvailabilityIndexConsistent(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
+        return availabilityIndex.isConsistentWithDatabase(checkInDate, checkOutDate,
+                roomTypeCatalog.find(roomType).map(RoomType::getId).orElse(null));
+    }
+
+    private void setRoomType(Room room, String roomType) {
+        setRoomType(room, roomTypeCatalog.findOrCreate(roomType));
+    }
+
+    private static void setRoomType(Room room, RoomType type) {
+        room.setRoomTypeId(type.getId());
+        room.setRoomType(type.getName());
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // The type's row is locked before looking for rooms of it: a room being added with the type holds
+    // the same lock, so it is either committed and seen here, or waits and then creates the type again.
+    private void removeRoomTypeIfUnused(Integer roomTypeId) {
+        if (roomTypeId != null) {
+            roomTypeCatalog.lock(roomTypeId)
+                    .filter(type -> !roomRepository.existsByRoomTypeId(roomTypeId))
+                    .ifPresent(roomTypeCatalog::remove);
+        }
+    }
+
+    private void storePhoto(Room room, MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            StoredPhoto stored = photoStorage.store(in);
+            room.setPhotoHash(stored.hash());
+            room.setPhotoContentType(stored.contentType());
+            room.setPhotoUpdatedAt(Instant.now());
+            // Renders off the request thread; skipped when these bytes were uploaded before.
+            photoVariantGenerator.generateAsync(stored.hash());
+        } catch (IOException e) {
+            // 3. Handle low-level exceptions
+            throw new InternalServerException("Error storing room photo: " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package learning.hotelbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import learning.hotelbackend.model.RoomType;
+import learning.hotelbackend.repository.RoomTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory copy of the room_type table. Names are matched after normalization (trimmed, inner
+ * whitespace collapsed, case-insensitive), so "double room" and " Double  Room" are one type. The
+ * sorted map doubles as the prefix index for type-ahead searches.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomTypeCatalog {
+    private final RoomTypeRepository roomTypeRepository;
+
+    private final NavigableMap<String, RoomType> typesByKey = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void load() {
+        roomTypeRepository.findAll().forEach(this::remember);
+    }
+
+    /**
+     * Canonical display form of a type name: trimmed, with runs of whitespace collapsed to one space.
+     */
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ");
+    }
+
+    public Optional<RoomType> find(String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        RoomType type = typesByKey.get(key(normalized));
+        if (type != null) {
+            return Optional.of(type);
+        }
+        // Possibly added by another instance since this one loaded.
+        return roomTypeRepository.findByNameIgnoreCase(normalized).map(this::remember);
+    }
+
+    /**
+     * Inside a transaction the type's row is locked until it ends, so it cannot be deleted as unused
+     * under a room being saved with it. A row deleted meanwhile, possibly by another instance whose
+     * deletion this copy has not seen, is created again.
+     */
+    public RoomType findOrCreate(String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Room type must not be blank");
+        }
+        Optional<RoomType> type = find(normalized);
+        if (type.isPresent() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            type = lock(type.get().getId())
+                    .or(() -> roomTypeRepository.findByNameIgnoreCase(normalized).flatMap(found -> lock(found.getId())));
+        }
+        return type.orElseGet(() -> {
+            try {
+                RoomType created = remember(roomTypeRepository.save(new RoomType(normalized)));
+                forgetOnRollback(created);
+                return created;
+            } catch (DataIntegrityViolationException e) {
+                // Inside a caller's transaction the failed insert has spoiled the session; that transaction fails.
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw e;
+                }
+                // Created concurrently by another request; the unique name index kept a single row.
+                return roomTypeRepository.findByNameIgnoreCase(normalized).map(this::remember).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    /**
+     * Locks the type's row for the rest of the caller's transaction. Empty, and forgotten here,
+     * if the row no longer exists.
+     */
+    public Optional<RoomType> lock(Integer id) {
+        Optional<RoomType> type = roomTypeRepository.lockById(id);
+        if (type.isEmpty()) {
+            typesByKey.values().removeIf(cached -> cached.getId().equals(id));
+        }
+        return type.map(this::remember);
+    }
+
+    // Call with the row locked (see lock), inside the transaction that found it unused.
+    public void remove(RoomType type) {
+        roomTypeRepository.delete(type);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                typesByKey.remove(key(type.getName()), type);
+            }
+        });
+    }
+
+    public List<String> getAllNames() {
+        return typesByKey.values().stream().map(RoomType::getName).toList();
+    }
+
+    public List<String> findNamesByPrefix(String prefix) {
+        String from = key(normalize(prefix));
+        List<String> names = new ArrayList<>();
+        for (RoomType type : typesByKey.tailMap(from, true).values()) {
+            if (!key(type.getName()).startsWith(from)) {
+                break;
+            }
+            names.add(type.getName());
+        }
+        return names;
+    }
+
+    // Created inside a caller's transaction (a bulk import): drop it again if that transaction rolls back.
+    private void forgetOnRollback(RoomType type) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        typesByKey.remove(key(type.getName()), type);
+                    }
+                }
+            });
+        }
+    }
+
+    private RoomType remember(RoomType type) {
+        typesByKey.put(key(type.getName()), type);
+        return type;
+    }
+
+    private static String key(String normalizedName) {
+        return normalizedName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -6,7 +6,9 @@ import learning.hotelbackend.model.Role;
 import learning.hotelbackend.model.User;
 import learning.hotelbackend.repository.RoleRepository;
 import learning.hotelbackend.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -16,7 +18,10 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "hotel.service", histogram = true)
 public class UserService implements IUserService {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
@@ -43,6 +48,12 @@ public class UserService implements IUserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public List<User> getUsers(Long lastSeenId, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(
+                lastSeenId != null ? lastSeenId : 0L, Limit.of(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE)));
+    }
+
     @Transactional
     @Override
     public void deleteUser(String email) {
@@ -0,0 +1,120 @@
+package learning.hotelbackend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLConnection;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Stores photos under {@code <storage-dir>/ab/cd/abcd...}, named by their SHA-256 hash. Uploads are
+ * written to a temporary file while being hashed, then atomically moved into place (or dropped if
+ * the same content is already stored). Variants sit next to their original as {@code <hash>-<variant>.jpg}.
+ */
+@Component
+public class FileSystemPhotoStorage implements PhotoStorage {
+    private static final Pattern SHA_256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tempDir;
+
+    public FileSystemPhotoStorage(@Value("${hotel.photos.storage-dir}") String storageDir) throws IOException {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.tempDir = Files.createDirectories(root.resolve("tmp"));
+    }
+
+    @Override
+    public StoredPhoto store(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            BufferedInputStream buffered = new BufferedInputStream(content);
+            String contentType = URLConnection.guessContentTypeFromStream(buffered);
+            long size;
+            try (InputStream in = new DigestInputStream(buffered, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Another upload of the same bytes won the race; its copy is identical.
+                }
+            }
+            return new StoredPhoto(hash, size, contentType != null ? contentType : "image/jpeg");
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource load(String hash) {
+        return new FileSystemResource(pathFor(hash));
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(pathFor(hash));
+    }
+
+    @Override
+    public void storeVariant(String hash, PhotoVariant variant, byte[] content) throws IOException {
+        Path target = variantPathFor(hash, variant);
+        Path temp = Files.createTempFile(tempDir, "variant-", ".part");
+        try {
+            Files.write(temp, content);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource loadVariant(String hash, PhotoVariant variant) {
+        return new FileSystemResource(variantPathFor(hash, variant));
+    }
+
+    @Override
+    public boolean variantExists(String hash, PhotoVariant variant) {
+        return Files.exists(variantPathFor(hash, variant));
+    }
+
+    private Path variantPathFor(String hash, PhotoVariant variant) {
+        return pathFor(hash).resolveSibling(hash + "-" + variant.key() + ".jpg");
+    }
+
+    private Path pathFor(String hash) {
+        if (hash == null || !SHA_256_HEX.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Not a photo hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package learning.hotelbackend.storage;
+
+import learning.hotelbackend.exception.InternalServerException;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.RoomRepository;
+import learning.hotelbackend.service.CatalogVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves photos still held in the {@code room_photo} table into {@link PhotoStorage} and deletes the
+ * row. Runs in the background at startup, one transaction per room. Until it reaches a room, requests
+ * read that room's photo from the table without moving it.
+ */
+@Component
+public class LegacyPhotoMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(LegacyPhotoMigrator.class);
+    private static final int BATCH_SIZE = 50;
+
+    private final RoomRepository roomRepository;
+    private final PhotoStorage photoStorage;
+    private final PhotoVariantGenerator variantGenerator;
+    private final CatalogVersion catalogVersion;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final boolean migrateOnStartup;
+
+    public LegacyPhotoMigrator(RoomRepository roomRepository,
+                               PhotoStorage photoStorage,
+                               PhotoVariantGenerator variantGenerator,
+                               CatalogVersion catalogVersion,
+                               CacheManager cacheManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${hotel.photos.migrate-on-startup:true}") boolean migrateOnStartup) {
+        this.roomRepository = roomRepository;
+        this.photoStorage = photoStorage;
+        this.variantGenerator = variantGenerator;
+        this.catalogVersion = catalogVersion;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAll() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread migration = new Thread(this::migrateInBatches, "legacy-photo-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    /**
+     * Moves the room's legacy photo, if it still has one, into the store in its own transaction.
+     *
+     * @return the room as stored afterwards, or empty if there is no such room
+     */
+    public Optional<Room> migrate(Long roomId) {
+        boolean[] moved = new boolean[1];
+        Optional<Room> room = transactionTemplate.execute(status -> roomRepository.findById(roomId).map(theRoom -> {
+            if (theRoom.getLegacyPhoto() != null) {
+                moveToStorage(theRoom);
+                moved[0] = true;
+            }
+            return theRoom;
+        }));
+        // The room's photo URL and hash change once the photo is in the store.
+        if (moved[0]) {
+            Cache roomMetadata = cacheManager.getCache("roomMetadata");
+            if (roomMetadata != null) {
+                roomMetadata.evict(roomId);
+            }
+            catalogVersion.bump();
+        }
+        return room;
+    }
+
+    /**
+     * @return the bytes of the room's photo if it is still in room_photo
+     */
+    public Optional<byte[]> read(Long roomId) {
+        return readOnlyTemplate.execute(status -> roomRepository.findById(roomId)
+                .map(Room::getLegacyPhoto)
+                .map(legacyPhoto -> {
+                    try {
+                        Blob photo = legacyPhoto.getPhoto();
+                        return photo.getBytes(1, (int) photo.length());
+                    } catch (SQLException e) {
+                        throw new InternalServerException("Error reading photo of room " + roomId + ": " + e.getMessage());
+                    }
+                }));
+    }
+
+    // Only here and in read() is the legacy photo proxy initialised, i.e. the Blob read.
+    private void moveToStorage(Room room) {
+        try (InputStream in = room.getLegacyPhoto().getPhoto().getBinaryStream()) {
+            StoredPhoto stored = photoStorage.store(in);
+            room.setPhotoHash(stored.hash());
+            room.setPhotoContentType(stored.contentType());
+            room.setPhotoUpdatedAt(Instant.now());
+            // Orphan removal deletes the room_photo row.
+            room.setLegacyPhoto(null);
+            variantGenerator.generateAsync(stored.hash());
+        } catch (IOException | SQLException e) {
+            throw new InternalServerException("Error migrating photo of room " + room.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private void migrateInBatches() {
+        long lastSeenId = 0;
+        int migrated = 0;
+        List<Long> roomIds;
+        while (!(roomIds = roomRepository.findIdsWithLegacyPhoto(lastSeenId, Limit.of(BATCH_SIZE))).isEmpty()) {
+            for (Long roomId : roomIds) {
+                try {
+                    migrate(roomId);
+                    migrated++;
+                } catch (RuntimeException e) {
+                    logger.error("Could not migrate photo of room {}: {}", roomId, e.getMessage());
+                }
+                lastSeenId = roomId;
+            }
+        }
+        if (migrated > 0) {
+            logger.info("Moved {} room photos from the database into photo storage", migrated);
+        }
+    }
+}
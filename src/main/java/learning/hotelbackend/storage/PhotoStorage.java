@@ -0,0 +1,31 @@
+package learning.hotelbackend.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-addressed store for room photos. Photos are keyed by the SHA-256 of their bytes, so
+ * storing the same bytes twice keeps a single copy.
+ */
+public interface PhotoStorage {
+
+    /**
+     * Streams {@code content} into the store without buffering it in memory.
+     */
+    StoredPhoto store(InputStream content) throws IOException;
+
+    Resource load(String hash);
+
+    boolean exists(String hash);
+
+    /**
+     * Stores a rendition derived from the photo {@code hash}, replacing any earlier one.
+     */
+    void storeVariant(String hash, PhotoVariant variant, byte[] content) throws IOException;
+
+    Resource loadVariant(String hash, PhotoVariant variant);
+
+    boolean variantExists(String hash, PhotoVariant variant);
+}
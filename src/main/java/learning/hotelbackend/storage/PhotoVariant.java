@@ -0,0 +1,38 @@
+package learning.hotelbackend.storage;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Downscaled JPEG renditions generated for every stored photo, largest first. Each is bounded by
+ * {@code maxDimension} pixels on its longest side; smaller originals are not upscaled.
+ */
+public enum PhotoVariant {
+    FULL(1600),
+    CARD(480),
+    THUMBNAIL(160);
+
+    private final int maxDimension;
+
+    PhotoVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    // Name used in URLs ("?size=thumbnail") and file names.
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static PhotoVariant smallest() {
+        return THUMBNAIL;
+    }
+
+    public static Optional<PhotoVariant> fromKey(String key) {
+        return Arrays.stream(values()).filter(variant -> variant.key().equalsIgnoreCase(key)).findFirst();
+    }
+}
@@ -0,0 +1,210 @@
+package learning.hotelbackend.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the {@link PhotoVariant}s of stored photos on a small, bounded worker pool so uploads never
+ * wait for image processing. Each photo is decoded once; every variant is scaled down from the
+ * previous, larger one.
+ */
+@Component
+public class PhotoVariantGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(PhotoVariantGenerator.class);
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final PhotoStorage photoStorage;
+    private final ThreadPoolExecutor executor;
+    // Hashes queued or being rendered, so concurrent uploads of the same bytes are processed once.
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Hashes that could not be rendered (undecodable or too large); they are not queued again until restart.
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private final long maxPixels;
+
+    public PhotoVariantGenerator(PhotoStorage photoStorage,
+                                 @Value("${hotel.photos.variants.threads:2}") int threads,
+                                 @Value("${hotel.photos.variants.queue-capacity:100}") int queueCapacity,
+                                 @Value("${hotel.photos.variants.max-pixels:40000000}") long maxPixels) {
+        this.photoStorage = photoStorage;
+        this.maxPixels = maxPixels;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreadFactory());
+        // Decode and encode in memory rather than through ImageIO's temporary files.
+        ImageIO.setUseCache(false);
+    }
+
+    /**
+     * Queues rendering of the photo's variants unless they already exist, are already queued or
+     * could not be rendered before. Returns immediately; if the queue is full the photo is picked up
+     * again on its next request.
+     */
+    public void generateAsync(String hash) {
+        if (failed.contains(hash) || hasAllVariants(hash) || !inFlight.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!generate(hash)) {
+                        failed.add(hash);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failed.add(hash);
+                    logger.warn("Could not render variants of photo {}: {}", hash, e.getMessage());
+                } finally {
+                    inFlight.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash);
+            logger.warn("Photo variant queue is full; skipping photo {} for now", hash);
+        }
+    }
+
+    public boolean hasAllVariants(String hash) {
+        return Arrays.stream(PhotoVariant.values()).allMatch(variant -> photoStorage.variantExists(hash, variant));
+    }
+
+    boolean hasFailed(String hash) {
+        return failed.contains(hash);
+    }
+
+    /**
+     * @return false if the photo cannot be decoded or has more than hotel.photos.variants.max-pixels
+     */
+    boolean generate(String hash) throws IOException {
+        BufferedImage image = decode(hash);
+        if (image == null) {
+            return false;
+        }
+        for (PhotoVariant variant : PhotoVariant.values()) {
+            image = scaleDown(image, variant.getMaxDimension());
+            if (!photoStorage.variantExists(hash, variant)) {
+                photoStorage.storeVariant(hash, variant, encodeJpeg(image));
+            }
+        }
+        return true;
+    }
+
+    // Reads the dimensions from the header first, so a small file declaring a huge image is never decoded.
+    private BufferedImage decode(String hash) throws IOException {
+        try (InputStream in = photoStorage.load(hash).getInputStream();
+             ImageInputStream image = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = image != null ? ImageIO.getImageReaders(image) : null;
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("Photo {} is not in a format ImageIO can decode; no variants rendered", hash);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("Photo {} has {} pixels, more than the {} allowed; no variants rendered",
+                            hash, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Halves the image until it is within 2x of the target, then does one bilinear step; a single
+    // bilinear step over a large ratio skips most source pixels and aliases badly.
+    private static BufferedImage scaleDown(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            width /= 2;
+            height /= 2;
+            current = draw(current, width, height);
+        }
+        if (current == source || width != targetWidth || height != targetHeight) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    // Draws onto an opaque RGB image (JPEG has no alpha), filling transparent areas with white.
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "photo-variants-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            // Rendering is background work; let request threads win the CPU.
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package learning.hotelbackend.storage;
+
+/**
+ * Result of storing a photo: its SHA-256 content hash (the storage key), size and sniffed content type.
+ */
+public record StoredPhoto(String hash, long size, String contentType) {
+}
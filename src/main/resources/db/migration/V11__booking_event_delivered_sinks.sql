@@ -0,0 +1,2 @@
+-- Sinks that already took an event, so a retry after another sink failed skips them.
+alter table booking_event add column delivered_sinks varchar(1000);
@@ -0,0 +1,9 @@
+-- One row holding the room catalogue version, shared by all instances; see CatalogVersion.
+
+create table catalog_version (
+    id integer not null,
+    version bigint not null,
+    primary key (id)
+);
+
+insert into catalog_version (id, version) values (1, 0);
@@ -0,0 +1,2 @@
+-- Optimistic lock version of each outbox row; see BookingEvent.
+alter table booking_event add column version bigint not null default 0;
@@ -0,0 +1,5 @@
+-- Photo storage keys: the content hash of the stored file, its type and when it last changed.
+
+alter table room add column photo_hash varchar(64);
+alter table room add column photo_content_type varchar(255);
+alter table room add column photo_updated_at datetime(6);
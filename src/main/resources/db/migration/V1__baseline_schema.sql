@@ -0,0 +1,47 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update) from the entities. Existing databases
+-- are baselined at this version, so it must stay exactly that schema; later changes go in later versions.
+
+create table room (
+    id bigint not null auto_increment,
+    room_type varchar(255),
+    room_price decimal(38,2),
+    photo longblob,
+    primary key (id)
+);
+
+create table booked_room (
+    booking_id bigint not null auto_increment,
+    check_in date,
+    check_out date,
+    guest_full_name varchar(255),
+    guest_email varchar(255),
+    adults integer not null,
+    children integer not null,
+    total_guest integer not null,
+    confirmation_code varchar(255),
+    room_id bigint,
+    primary key (booking_id),
+    constraint fk_booked_room_room foreign key (room_id) references room (id)
+);
+
+create table role (
+    id bigint not null auto_increment,
+    name varchar(255),
+    primary key (id)
+);
+
+create table user (
+    id bigint not null auto_increment,
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255),
+    password varchar(255),
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    constraint fk_user_roles_user foreign key (user_id) references user (id),
+    constraint fk_user_roles_role foreign key (role_id) references role (id)
+);
@@ -0,0 +1,25 @@
+-- One index per repository access path.
+
+-- findByRoomId, findByRoomIdIn and the overlap check of saveBooking (room_id = ? AND check_in < ? AND check_out > ?).
+create index idx_booked_room_room_stay on booked_room (room_id, check_in, check_out);
+
+-- Availability search fallback: bookings with check_out >= ? are mostly the few future ones; room_id makes it covering.
+create index idx_booked_room_stay_dates on booked_room (check_out, check_in, room_id);
+
+-- findByBookingConfirmationCode. Unique from V10 on, once existing rows are checked for duplicates.
+create index idx_booked_room_confirmation_code on booked_room (confirmation_code);
+
+-- findByGuestEmail
+create index idx_booked_room_guest_email on booked_room (guest_email);
+
+-- findByEmail, existsByEmail, findByEmailWithRoles, deleteByEmail. Unique from V10 on.
+create index idx_user_email on user (email);
+
+-- findByName, existsByName. Unique from V10 on.
+create index idx_role_name on role (name);
+
+-- Roles of a user (the join in findByEmailWithRoles and the batched User.roles load); also rejects duplicate grants.
+alter table user_roles add primary key (user_id, role_id);
+
+-- findDistinctRoomTypes reads the index instead of the room rows and their photos.
+create index idx_room_room_type on room (room_type);
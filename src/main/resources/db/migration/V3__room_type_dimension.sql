@@ -0,0 +1,19 @@
+-- Room types become their own table; rooms refer to them by id and searches match the id exactly.
+
+create table room_type (
+    id integer not null auto_increment,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_room_type_name unique (name)
+);
+
+alter table room add column room_type_id integer;
+
+-- V3_1 fills room_type and room.room_type_id from the existing names.
+
+alter table room add constraint fk_room_room_type foreign key (room_type_id) references room_type (id);
+
+create index idx_room_room_type_id on room (room_type_id);
+
+-- Distinct type names are now read from room_type.
+drop index idx_room_room_type on room;
@@ -0,0 +1,24 @@
+-- Outbox of booking changes, written with the booking and delivered asynchronously.
+
+create table booking_event (
+    id bigint not null auto_increment,
+    type varchar(16) not null,
+    status varchar(16) not null,
+    booking_id bigint,
+    room_id bigint,
+    room_type varchar(255),
+    confirmation_code varchar(255),
+    guest_full_name varchar(255),
+    guest_email varchar(255),
+    check_in_date date,
+    check_out_date date,
+    created_at datetime(6) not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    processed_at datetime(6),
+    last_error varchar(1000),
+    primary key (id)
+);
+
+-- The dispatcher's poll: status = 'PENDING' AND next_attempt_at <= ? ORDER BY id.
+create index idx_booking_event_due on booking_event (status, next_attempt_at);
@@ -0,0 +1,8 @@
+-- "My bookings" lookups go by an 8-byte hash of the normalized guest email (see BookedRoom.guestEmailHash)
+-- instead of an index over the full address. V7 fills the column for existing bookings.
+
+alter table booked_room add column guest_email_hash bigint;
+
+create index idx_booked_room_guest_email_hash on booked_room (guest_email_hash);
+
+drop index idx_booked_room_guest_email on booked_room;
@@ -0,0 +1,18 @@
+-- Legacy photo bytes move out of the room row into room_photo, which rooms refer to by id. Loading a
+-- room then never reads the LOB; LegacyPhotoMigrator moves these rows into photo storage.
+
+create table room_photo (
+    id bigint not null,
+    photo longblob not null,
+    primary key (id)
+);
+
+insert into room_photo (id, photo) select id, photo from room where photo is not null;
+
+alter table room add column legacy_photo_id bigint;
+
+update room set legacy_photo_id = id where photo is not null;
+
+alter table room add constraint fk_room_legacy_photo foreign key (legacy_photo_id) references room_photo (id);
+
+alter table room drop column photo;
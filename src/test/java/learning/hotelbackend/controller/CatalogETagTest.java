@@ -0,0 +1,134 @@
+package learning.hotelbackend.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.repository.BookingEventRepository;
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.service.CatalogVersion;
+import learning.hotelbackend.service.IBookingService;
+import learning.hotelbackend.service.IRoomService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Catalogue reads carry the catalogue version as a strong ETag: an unchanged If-None-Match is
+ * answered 304 without loading the catalogue, room and booking writes change the ETag, and so does
+ * a write made through another instance.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class CatalogETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long roomId;
+
+    @AfterEach
+    void cleanUp() {
+        bookingEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        if (roomId != null) {
+            roomService.deleteRoom(roomId);
+        }
+    }
+
+    @Test
+    void unchangedCatalogueIsNotModifiedUntilAWrite() throws Exception {
+        roomId = roomService.addNewRoom(null, "ETag Double", BigDecimal.valueOf(110)).getId();
+        String roomUrl = "/rooms/room/" + roomId;
+
+        MvcResult listing = mockMvc.perform(get("/rooms/all-rooms"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn();
+        String eTag = listing.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+        assertThat(listing.getResponse().getHeaders(HttpHeaders.ETAG)).hasSize(1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (String url : new String[]{"/rooms/all-rooms", "/rooms/room/types", roomUrl}) {
+            mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(LocalDate.of(2033, 4, 1));
+        booking.setCheckOutDate(LocalDate.of(2033, 4, 4));
+        booking.setGuestFullName("Katherine Johnson");
+        booking.setGuestEmail("katherine@example.com");
+        booking.setNumOfAdults(1);
+        bookingService.saveBooking(roomId, booking);
+        String bookedETag = mockMvc.perform(get(roomUrl).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(bookedETag).isNotEqualTo(eTag);
+
+        roomService.updateRoom(roomId, null, BigDecimal.valueOf(115), null);
+        mockMvc.perform(get("/rooms/room/types").header(HttpHeaders.IF_NONE_MATCH, bookedETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void aWriteThroughAnotherInstanceChangesTheETag() throws Exception {
+        String eTag = mockMvc.perform(get("/rooms/room/types"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        new CatalogVersion(jdbcTemplate, transactionManager, Duration.ZERO).bump();
+
+        // This instance re-reads the shared version within hotel.catalog.version-refresh.
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (mockMvc.perform(get("/rooms/room/types").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn().getResponse().getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            assertThat(System.currentTimeMillis()).as("waited too long for the new ETag").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package learning.hotelbackend.controller;
+
+import learning.hotelbackend.model.Role;
+import learning.hotelbackend.model.User;
+import learning.hotelbackend.repository.RoleRepository;
+import learning.hotelbackend.repository.UserRepository;
+import learning.hotelbackend.security.user.LoginService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logins run on the login pool: roles come from the role catalog, outdated password hashes are
+ * upgraded after a successful login, and a saturated pool refuses logins instead of queueing them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class LoginTest {
+    private static final String EMAIL = "login.test@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void loginUpgradesALegacyHashAndRejectsAWrongPassword() throws Exception {
+        // Stored before the {id} prefix and at a lower cost than hotel.security.bcrypt-strength.
+        addUser(new BCryptPasswordEncoder(4).encode("s3cret"));
+
+        MvcResult login = mockMvc.perform(login("s3cret")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(EMAIL))
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_USER"))
+                .andExpect(jsonPath("$.token").isNotEmpty());
+        assertThat(userRepository.findByEmail(EMAIL).orElseThrow().getPassword()).startsWith("{bcrypt}$2a$10$");
+
+        MvcResult again = mockMvc.perform(login("s3cret")).andReturn();
+        mockMvc.perform(asyncDispatch(again)).andExpect(status().isOk());
+
+        MvcResult wrong = mockMvc.perform(login("wrong")).andReturn();
+        mockMvc.perform(asyncDispatch(wrong)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void saturatedLoginPoolRefusesLogins() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AuthenticationManager slowManager = authentication -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return authentication;
+        };
+        LoginService loginService = new LoginService(slowManager, 1, 1);
+        try {
+            loginService.authenticate("a@example.com", "x"); // running
+            loginService.authenticate("b@example.com", "x"); // queued
+            assertThatThrownBy(() -> loginService.authenticate("c@example.com", "x"))
+                    .isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+            loginService.shutdown();
+        }
+    }
+
+    private void addUser(String passwordHash) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Role role = roleRepository.save(new Role("ROLE_USER"));
+            User user = new User();
+            user.setFirstName("Login");
+            user.setLastName("Test");
+            user.setEmail(EMAIL);
+            user.setPassword(passwordHash);
+            user.getRoles().add(role);
+            userRepository.save(user);
+        });
+    }
+
+    private static RequestBuilder login(String password) {
+        return post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + EMAIL + "\",\"password\":\"" + password + "\"}");
+    }
+}
@@ -0,0 +1,90 @@
+package learning.hotelbackend.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the room listing against N+1 regressions: the number of SQL statements per
+ * listing must not grow with the number of rooms.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class RoomListingQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    void allRoomsListingIssuesConstantNumberOfStatements() throws Exception {
+        addRoomsWithBookings(3);
+        long smallListing = statementsFor("/rooms/all-rooms");
+
+        addRoomsWithBookings(40);
+        long largeListing = statementsFor("/rooms/all-rooms");
+
+        assertThat(largeListing).isEqualTo(smallListing);
+        assertThat(largeListing).isLessThanOrEqualTo(2);
+    }
+
+    private long statementsFor(String url) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addRoomsWithBookings(int count) {
+        for (int i = 0; i < count; i++) {
+            Room room = new Room();
+            room.setRoomType("Double");
+            room.setRoomPrice(BigDecimal.valueOf(100 + i));
+            roomRepository.save(room);
+
+            BookedRoom booking = new BookedRoom();
+            booking.setCheckInDate(LocalDate.of(2030, 1, 1).plusDays(i));
+            booking.setCheckOutDate(LocalDate.of(2030, 1, 3).plusDays(i));
+            booking.setGuestFullName("Guest " + i);
+            booking.setGuestEmail("guest" + i + "@example.com");
+            booking.setNumOfAdults(2);
+            booking.setBookingId(room.getId());
+            booking.setBookingConfirmationCode("CODE" + room.getId());
+            room.addBooking(booking);
+            bookingRepository.save(booking);
+        }
+    }
+}
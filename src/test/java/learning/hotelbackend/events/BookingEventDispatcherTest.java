@@ -0,0 +1,212 @@
+package learning.hotelbackend.events;
+
+import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.BookingEvent;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.BookingEventRepository;
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import learning.hotelbackend.service.IBookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Books and cancels a room and checks that both outbox events reach a mail sink that fails its first
+ * deliveries, i.e. that they are retried until delivered, while a sink that took them the first time
+ * is not called again. Also checks that an outcome that cannot be recorded does not stop the rest
+ * of the batch. The dispatcher is driven directly; its scheduled polling stays disabled, as in the
+ * other test contexts sharing the database.
+ */
+@SpringBootTest(properties = {
+        "hotel.events.initial-backoff=PT0.05S",
+        "hotel.events.max-backoff=PT0.2S"})
+@ActiveProfiles("h2")
+class BookingEventDispatcherTest {
+    private static final int FAILURES_BEFORE_SUCCESS = 2;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private BookingEventDispatcher dispatcher;
+
+    @Autowired
+    private FlakyMailSink mailSink;
+
+    @Autowired
+    private AuditSink auditSink;
+
+    // Other test contexts leave undelivered events behind in the shared database.
+    @BeforeEach
+    void startWithoutEvents() {
+        bookingEventRepository.deleteAll();
+        mailSink.sent.clear();
+        auditSink.handled.clear();
+        auditSink.onHandle = event -> { };
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    void bookingEventsAreRetriedUntilDelivered() throws Exception {
+        Room room = new Room();
+        room.setRoomType("Suite");
+        room.setRoomPrice(BigDecimal.valueOf(250));
+        Long roomId = roomRepository.save(room).getId();
+
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(LocalDate.of(2030, 3, 1));
+        booking.setCheckOutDate(LocalDate.of(2030, 3, 4));
+        booking.setGuestFullName("Ada Lovelace");
+        booking.setGuestEmail("ada@example.com");
+        booking.setNumOfAdults(1);
+        String confirmationCode = bookingService.saveBooking(roomId, booking);
+        bookingService.cancelBooking(booking.getBookingId());
+
+        Long bookingId = booking.getBookingId();
+        awaitTrue(() -> {
+            dispatcher.dispatchBatch();
+            return eventsOf(bookingId).size() == 2 && eventsOf(bookingId).stream()
+                    .allMatch(event -> event.getStatus() == BookingEvent.Status.SENT);
+        });
+
+        // Retries are jittered, so the two events may be delivered in either order.
+        assertThat(mailSink.sent).extracting(MailMessage::subject)
+                .containsExactlyInAnyOrder("Booking " + confirmationCode + " confirmed",
+                        "Booking " + confirmationCode + " cancelled");
+        assertThat(mailSink.sent).extracting(MailMessage::to).containsOnly("ada@example.com");
+        assertThat(auditSink.handled).containsExactlyInAnyOrder(BookingEvent.Type.BOOKED, BookingEvent.Type.CANCELLED);
+        assertThat(eventsOf(bookingId))
+                .allSatisfy(event -> assertThat(event.getAttempts()).isEqualTo(FAILURES_BEFORE_SUCCESS + 1));
+    }
+
+    @Test
+    void anOutcomeThatCannotBeRecordedDoesNotStopTheBatch() {
+        BookingEvent takenOver = bookingEventRepository.save(event(1L));
+        BookingEvent next = bookingEventRepository.save(event(2L));
+        // Another instance claims the first event again while this one is still delivering it.
+        auditSink.onHandle = event -> {
+            if (event.getId().equals(takenOver.getId())) {
+                BookingEvent stored = bookingEventRepository.findById(event.getId()).orElseThrow();
+                stored.setAttempts(stored.getAttempts() + 1);
+                bookingEventRepository.save(stored);
+            }
+        };
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(2);
+
+        assertThat(bookingEventRepository.findById(takenOver.getId()).orElseThrow().getDeliveredSinks()).isNull();
+        BookingEvent recorded = bookingEventRepository.findById(next.getId()).orElseThrow();
+        assertThat(recorded.getDeliveredSinks()).contains("audit");
+        assertThat(recorded.getLastError()).contains("SMTP server unavailable");
+    }
+
+    private static BookingEvent event(Long bookingId) {
+        BookedRoom booking = new BookedRoom();
+        booking.setBookingId(bookingId);
+        booking.setCheckInDate(LocalDate.of(2030, 4, 1));
+        booking.setCheckOutDate(LocalDate.of(2030, 4, 2));
+        booking.setGuestEmail("grace@example.com");
+        return BookingEvent.of(BookingEvent.Type.BOOKED, booking, new Room());
+    }
+
+    private List<BookingEvent> eventsOf(Long bookingId) {
+        return bookingEventRepository.findAll().stream()
+                .filter(event -> bookingId.equals(event.getBookingId()))
+                .toList();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("waited too long for delivery").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    record MailMessage(String to, String subject) {
+    }
+
+    // Stands in for an SMTP sink: records the messages it would send, after rejecting each event
+    // FAILURES_BEFORE_SUCCESS times as an unreachable mail server would.
+    static class FlakyMailSink implements BookingEventSink {
+        final List<MailMessage> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String name() {
+            return "mail";
+        }
+
+        @Override
+        public void handle(BookingEvent event) {
+            if (event.getAttempts() <= FAILURES_BEFORE_SUCCESS) {
+                throw new IllegalStateException("SMTP server unavailable");
+            }
+            String action = event.getType() == BookingEvent.Type.BOOKED ? "confirmed" : "cancelled";
+            sent.add(new MailMessage(event.getGuestEmail(),
+                    "Booking " + event.getConfirmationCode() + " " + action));
+        }
+    }
+
+    static class AuditSink implements BookingEventSink {
+        final List<BookingEvent.Type> handled = new CopyOnWriteArrayList<>();
+        volatile Consumer<BookingEvent> onHandle = event -> { };
+
+        @Override
+        public String name() {
+            return "audit";
+        }
+
+        @Override
+        public void handle(BookingEvent event) {
+            onHandle.accept(event);
+            handled.add(event.getType());
+        }
+    }
+
+    @TestConfiguration
+    static class MailSinkConfig {
+        @Bean
+        FlakyMailSink flakyMailSink() {
+            return new FlakyMailSink();
+        }
+
+        // Ahead of the mail sink, so it has taken each event before the mail sink fails it.
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        AuditSink auditSink() {
+            return new AuditSink();
+        }
+    }
+}
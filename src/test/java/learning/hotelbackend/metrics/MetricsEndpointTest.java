@@ -0,0 +1,86 @@
+package learning.hotelbackend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.RoomRepository;
+import learning.hotelbackend.service.RoomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A request shows up in the per-request SQL statement histogram, the HTTP and service timers and the
+ * availability search timer, and all of them are in the unauthenticated Prometheus scrape, next to the
+ * hit/miss series of the room metadata cache and the rate limiter's buckets.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("h2")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @AfterEach
+    void cleanUp() {
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    void requestsAreMeasuredAndScraped() throws Exception {
+        Room room = new Room();
+        room.setRoomType("Metrics Twin");
+        room.setRoomPrice(BigDecimal.valueOf(75));
+        Long roomId = roomRepository.save(room).getId();
+
+        mockMvc.perform(get("/rooms/all-rooms")).andExpect(status().isOk());
+        mockMvc.perform(get("/rooms/room/" + roomId)).andExpect(status().isOk());
+        mockMvc.perform(get("/rooms/available-rooms")
+                        .param("checkInDate", "2031-05-01")
+                        .param("checkOutDate", "2031-05-03")
+                        .param("roomType", ""))
+                .andExpect(status().is2xxSuccessful());
+
+        DistributionSummary listingStatements = meterRegistry.find("hotel.sql.statements.per.request")
+                .tag("uri", "/rooms/all-rooms").summary();
+        assertThat(listingStatements).isNotNull();
+        assertThat(listingStatements.count()).isEqualTo(1);
+        assertThat(listingStatements.max()).isBetween(1.0, 2.0);
+        assertThat(meterRegistry.find("hotel.service").tag("class", RoomService.class.getName())
+                .tag("method", "getAllRooms").timer()).isNotNull();
+        assertThat(meterRegistry.find("hotel.availability.search").timers())
+                .anyMatch(timer -> timer.count() > 0);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("hotel_sql_statements_per_request_bucket")
+                .contains("hotel_sql_statements_total")
+                .contains("hotel_service_seconds_bucket")
+                .contains("http_server_requests_seconds_bucket")
+                .contains("hikaricp_connections_acquire_seconds")
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"roomMetadata\"[^}]*result=\"miss\"")
+                .containsPattern("cache_size\\{[^}]*cache=\"roomMetadata\"")
+                .containsPattern("cache_size\\{[^}]*cache=\"rateLimitBuckets\"");
+    }
+}
@@ -0,0 +1,170 @@
+package learning.hotelbackend.repository;
+
+import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.Role;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.model.RoomType;
+import learning.hotelbackend.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every lookup query of the repositories against the migrated schema and asserts, using the
+ * embedded database's EXPLAIN output, that none of them scans a whole table. Queries that read a
+ * whole table by design (findAll, the startup loads and the export stream) are not covered.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "learning.hotelbackend.repository.RepositoryIndexUsageTest$RecordingStatementInspector")
+@ActiveProfiles("h2")
+class RepositoryIndexUsageTest {
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        roomTypeRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void lookupQueriesUseAnIndex() {
+        Room room = addRoomsWithBookings(20, 10);
+        User user = addUserWithRole();
+        LocalDate checkIn = LocalDate.of(2030, 1, 10);
+
+        RecordingStatementInspector.STATEMENTS.clear();
+        bookingRepository.findByRoomId(room.getId());
+        bookingRepository.findByRoomIdIn(List.of(room.getId(), room.getId() + 1));
+        bookingRepository.findByBookingConfirmationCode("0000000001");
+        bookingRepository.findGuestBookings(BookedRoom.guestEmailHash("guest1@example.com"), "guest1@example.com",
+                checkIn, PageRequest.of(0, 20));
+        bookingRepository.findWithRoomByBookingId(1L);
+        bookingRepository.findOverlappingBookings(room.getId(), checkIn, checkIn.plusDays(3));
+        bookingRepository.findOverlappingBookingsOfRooms(
+                List.of(room.getId(), room.getId() - 1), checkIn, checkIn.plusDays(30));
+        bookingRepository.findByBookingIdGreaterThanOrderByBookingIdAsc(0L, Limit.of(10));
+        bookingRepository.findBookingSummariesAfter(0L, Limit.of(10));
+        transactionTemplate.executeWithoutResult(status -> roomRepository.findByIdForUpdate(room.getId()));
+        transactionTemplate.executeWithoutResult(status ->
+                roomRepository.findAllByIdForUpdate(List.of(room.getId() - 1, room.getId())));
+        roomRepository.findMetadataAfter(0L, Limit.of(10));
+        roomRepository.findMetadataByIdIn(List.of(room.getId() - 1, room.getId()));
+        roomRepository.findIdsWithLegacyPhoto(0L, Limit.of(10));
+        roomRepository.findMetadataById(room.getId());
+        roomRepository.existsByRoomTypeId(room.getRoomTypeId());
+        roomRepository.findAvailableRoomsByDatesAndType(checkIn, checkIn.plusDays(3), room.getRoomTypeId());
+        userRepository.findByEmail(user.getEmail());
+        userRepository.existsByEmail(user.getEmail());
+        userRepository.findCredentialsByEmail(user.getEmail());
+        userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10));
+        roleRepository.findByName("ROLE_USER");
+        roleRepository.existsByName("ROLE_USER");
+        transactionTemplate.executeWithoutResult(status -> bookingEventRepository.claimDue(Instant.now(), Limit.of(10)));
+
+        List<String> queries = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+        assertThat(queries).hasSizeGreaterThanOrEqualTo(22);
+        for (String sql : queries) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(plan).as("plan of %s", sql).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    private Room addRoomsWithBookings(int rooms, int bookingsPerRoom) {
+        RoomType single = roomTypeRepository.save(new RoomType("Single"));
+        RoomType twin = roomTypeRepository.save(new RoomType("Double"));
+        Room last = null;
+        int code = 0;
+        for (int i = 0; i < rooms; i++) {
+            RoomType type = i % 2 == 0 ? single : twin;
+            Room room = new Room();
+            room.setRoomType(type.getName());
+            room.setRoomTypeId(type.getId());
+            room.setRoomPrice(BigDecimal.valueOf(100 + i));
+            last = roomRepository.save(room);
+            List<BookedRoom> bookings = new ArrayList<>();
+            for (int j = 0; j < bookingsPerRoom; j++) {
+                BookedRoom booking = new BookedRoom();
+                booking.setCheckInDate(LocalDate.of(2030, 1, 1).plusDays(j * 7L));
+                booking.setCheckOutDate(LocalDate.of(2030, 1, 3).plusDays(j * 7L));
+                booking.setGuestFullName("Guest " + code);
+                booking.setGuestEmail("guest" + code + "@example.com");
+                booking.setNumOfAdults(1);
+                booking.setBookingId((long) ++code);
+                booking.setBookingConfirmationCode(String.format("%010d", code));
+                booking.setRoom(last);
+                bookings.add(booking);
+            }
+            bookingRepository.saveAll(bookings);
+        }
+        return last;
+    }
+
+    private User addUserWithRole() {
+        return transactionTemplate.execute(status -> {
+            Role role = roleRepository.save(new Role("ROLE_USER"));
+            User user = new User();
+            user.setFirstName("Ada");
+            user.setLastName("Lovelace");
+            user.setEmail("ada@example.com");
+            user.setPassword("secret");
+            user.getRoles().add(role);
+            return userRepository.save(user);
+        });
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final Set<String> STATEMENTS = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
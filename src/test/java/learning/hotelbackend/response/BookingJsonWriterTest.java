@@ -0,0 +1,84 @@
+package learning.hotelbackend.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The streamed export must be byte-for-byte what serializing the equivalent BookingResponse list gives.
+ */
+class BookingJsonWriterTest {
+    @Test
+    void writesTheSameJsonAsTheResponseObjects() throws Exception {
+        // Configured as Spring Boot configures the application's mapper.
+        assertSameJson(Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new BlackbirdModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+
+    @Test
+    void followsTheMappersDateFormat() throws Exception {
+        assertSameJson(Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+
+    private static void assertSameJson(ObjectMapper objectMapper) throws Exception {
+        List<BookingSummary> bookings = List.of(
+                new Summary(1L, LocalDate.of(2031, 1, 1), LocalDate.of(2031, 1, 3), "Ada \"Countess\" Lovelace",
+                        "ada@example.com", 2, 1, "0ABC1DEF2GH3", 7L, "Double", new BigDecimal("120.50")),
+                new Summary(2L, LocalDate.of(10031, 2, 1), null, "Grace Hopper", null, 1, 0, "1XYZ", 8L, "Single",
+                        BigDecimal.valueOf(80)),
+                new Summary(3L, LocalDate.of(2031, 3, 1), LocalDate.of(2031, 3, 2), "Alan Turing",
+                        "alan@example.com", 1, 0, "2QRS", 7L, "Double", new BigDecimal("120.50")));
+
+        StringWriter streamed = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(streamed)) {
+            BookingJsonWriter writer = new BookingJsonWriter(objectMapper, generator);
+            generator.writeStartArray();
+            for (BookingSummary booking : bookings) {
+                writer.write(booking);
+            }
+            generator.writeEndArray();
+        }
+
+        List<BookingResponse> responses = new ArrayList<>();
+        for (BookingSummary booking : bookings) {
+            responses.add(new BookingResponse(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getGuestFullName(), booking.getGuestEmail(), booking.getNumOfAdults(),
+                    booking.getNumOfChildren(), booking.getTotalNumOfGuests(), booking.getBookingConfirmationCode(),
+                    new RoomResponse(booking.getRoomId(), booking.getRoomType(), booking.getRoomPrice())));
+        }
+        assertThat(streamed.toString()).isEqualTo(objectMapper.writeValueAsString(responses));
+    }
+
+    private record Summary(Long id, LocalDate checkInDate, LocalDate checkOutDate, String guestFullName,
+                           String guestEmail, int numOfAdults, int numOfChildren, String bookingConfirmationCode,
+                           Long roomId, String roomType, BigDecimal roomPrice) implements BookingSummary {
+        public Long getId() { return id; }
+        public LocalDate getCheckInDate() { return checkInDate; }
+        public LocalDate getCheckOutDate() { return checkOutDate; }
+        public String getGuestFullName() { return guestFullName; }
+        public String getGuestEmail() { return guestEmail; }
+        public int getNumOfAdults() { return numOfAdults; }
+        public int getNumOfChildren() { return numOfChildren; }
+        public int getTotalNumOfGuests() { return numOfAdults + numOfChildren; }
+        public String getBookingConfirmationCode() { return bookingConfirmationCode; }
+        public Long getRoomId() { return roomId; }
+        public String getRoomType() { return roomType; }
+        public BigDecimal getRoomPrice() { return roomPrice; }
+    }
+}
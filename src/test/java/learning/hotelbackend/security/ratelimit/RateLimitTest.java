@@ -0,0 +1,83 @@
+package learning.hotelbackend.security.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listings cost more than other requests, an exhausted client gets 429 with Retry-After while other
+ * clients and the actuator are unaffected, and the bucket refills at its configured rate.
+ */
+@SpringBootTest(properties = {
+        "hotel.rate-limit.capacity=20",
+        "hotel.rate-limit.refill-per-second=0.1",
+        "hotel.rate-limit.listing-cost=10"})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void exhaustedClientIsRefusedWithRetryAfter() throws Exception {
+        // Two listings use up the 20 tokens of 10.0.0.1.
+        mockMvc.perform(get("/rooms/all-rooms").with(client("10.0.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/rooms/all-rooms").with(client("10.0.0.1"))).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rooms/room/types").with(client("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+        mockMvc.perform(get("/rooms/all-rooms").with(client("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+
+        mockMvc.perform(get("/rooms/room/types").with(client("10.0.0.2"))).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health").with(client("10.0.0.1"))).andExpect(status().isOk());
+
+        Counter rejected = meterRegistry.find("hotel.ratelimit.rejected").tag("route", "listing").counter();
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.count()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketRefillsAtItsRate() {
+        long start = 0;
+        TokenBucket bucket = new TokenBucket(3, 2, start);
+        assertThat(bucket.tryTake(3, start)).isZero();
+        assertThat(bucket.tryTake(1, start)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+
+        long later = start + TimeUnit.MILLISECONDS.toNanos(500);
+        assertThat(bucket.tryTake(1, later)).isZero();
+        assertThat(bucket.tryTake(1, later)).isPositive();
+
+        // Idle for longer than it takes to fill: the bucket holds its capacity, not more.
+        long muchLater = later + TimeUnit.MINUTES.toNanos(1);
+        assertThat(bucket.tryTake(3, muchLater)).isZero();
+        assertThat(bucket.tryTake(1, muchLater)).isPositive();
+    }
+
+    private static RequestPostProcessor client(String remoteAddress) {
+        return request -> {
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package learning.hotelbackend.service;
+
+import learning.hotelbackend.exception.InvalidBookingRequestException;
+import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires thousands of overlapping booking requests at a handful of rooms from many threads and
+ * checks that no two committed bookings of the same room overlap.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BookingConcurrencyStressTest {
+    private static final Logger logger = LoggerFactory.getLogger(BookingConcurrencyStressTest.class);
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 3000;
+    private static final int ROOMS = 4;
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2030, 6, 1);
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    void parallelOverlappingBookingsNeverDoubleBookARoom() throws Exception {
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = new Room();
+            room.setRoomType("Suite");
+            room.setRoomPrice(BigDecimal.valueOf(250));
+            roomIds.add(roomRepository.save(room).getId());
+        }
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long roomId = roomIds.get(random.nextInt(roomIds.size()));
+                LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(60));
+                try {
+                    start.await();
+                    bookingService.saveBooking(roomId, bookingFor(checkIn, checkIn.plusDays(1 + random.nextInt(4))));
+                    accepted.incrementAndGet();
+                } catch (InvalidBookingRequestException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        logger.info("Booking stress test: {} attempts on {} threads in {} s ({} req/s), {} accepted, {} rejected",
+                ATTEMPTS, THREADS, String.format("%.2f", seconds), Math.round(ATTEMPTS / seconds),
+                accepted.get(), rejected.get());
+
+        assertThat(failures).isEmpty();
+        assertThat(accepted.get() + rejected.get()).isEqualTo(ATTEMPTS);
+        assertThat(accepted.get()).isPositive();
+
+        Map<Long, List<BookedRoom>> bookingsByRoom = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(booking -> booking.getRoom().getId()));
+        assertThat(bookingsByRoom.values().stream().mapToInt(List::size).sum()).isEqualTo(accepted.get());
+        for (List<BookedRoom> bookings : bookingsByRoom.values()) {
+            bookings.sort(Comparator.comparing(BookedRoom::getCheckInDate));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertThat(bookings.get(i).getCheckInDate())
+                        .isAfterOrEqualTo(bookings.get(i - 1).getCheckOutDate());
+            }
+        }
+    }
+
+    private static BookedRoom bookingFor(LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setGuestFullName("Stress Guest");
+        booking.setGuestEmail("stress@example.com");
+        booking.setNumOfAdults(1);
+        return booking;
+    }
+}
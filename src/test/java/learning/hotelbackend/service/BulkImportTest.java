@@ -0,0 +1,155 @@
+package learning.hotelbackend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import learning.hotelbackend.model.BulkItemResult;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.BookingEventRepository;
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import learning.hotelbackend.repository.RoomTypeRepository;
+import learning.hotelbackend.request.BulkBookingRequest;
+import learning.hotelbackend.request.RoomImportRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulk room import and bulk booking: per-item results in request order, overlaps checked against
+ * stored bookings and earlier items of the same batch, inserts sent as JDBC batches, and a failed
+ * import leaving none of the room types it created behind. Also checks that a room type deleted by
+ * another instance is created again rather than referenced from this instance's stale copy.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BulkImportTest {
+    private static final int ROOMS = 120;
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2031, 3, 1);
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    private RoomTypeCatalog roomTypeCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        bookingEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    void roomsAreInsertedInBatches() {
+        List<RoomImportRequest> requests = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            requests.add(new RoomImportRequest(i % 2 == 0 ? "Bulk Single" : "Bulk Double", BigDecimal.valueOf(80 + i)));
+        }
+        requests.add(new RoomImportRequest(" ", BigDecimal.TEN));
+        requests.add(new RoomImportRequest("Bulk Single", BigDecimal.valueOf(-1)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BulkItemResult> results = roomService.addRooms(requests);
+
+        assertThat(results).hasSize(ROOMS + 2);
+        assertThat(results.subList(0, ROOMS)).allMatch(BulkItemResult::created);
+        assertThat(results.get(ROOMS).created()).isFalse();
+        assertThat(results.get(ROOMS + 1).created()).isFalse();
+        assertThat(roomRepository.count()).isEqualTo(ROOMS);
+        // Three 50-row batches instead of one INSERT per room; ids are assigned without a round trip.
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void failedImportLeavesNoNewRoomTypes() {
+        // The second type name is longer than the room_type.name column, so its insert fails.
+        List<RoomImportRequest> requests = List.of(
+                new RoomImportRequest("Bulk Orphan", BigDecimal.valueOf(100)),
+                new RoomImportRequest("Bulk " + "x".repeat(300), BigDecimal.valueOf(100)));
+
+        assertThatThrownBy(() -> roomService.addRooms(requests)).isInstanceOf(DataAccessException.class);
+
+        assertThat(roomTypeRepository.findByNameIgnoreCase("Bulk Orphan")).isEmpty();
+        assertThat(roomTypeCatalog.getAllNames()).doesNotContain("Bulk Orphan");
+        assertThat(roomRepository.count()).isZero();
+    }
+
+    @Test
+    void roomTypeDeletedByAnotherInstanceIsCreatedAgain() {
+        Room first = roomService.addNewRoom(null, "Bulk Loft", BigDecimal.valueOf(150));
+        // Another instance deletes the last loft and, with it, the type; this one still has it in memory.
+        roomRepository.delete(first);
+        roomTypeRepository.deleteById(first.getRoomTypeId());
+
+        Room second = roomService.addNewRoom(null, "Bulk Loft", BigDecimal.valueOf(150));
+
+        assertThat(roomTypeRepository.findById(second.getRoomTypeId())).isPresent();
+        assertThat(roomService.getAllRoomTypes()).containsOnlyOnce("Bulk Loft");
+    }
+
+    @Test
+    void overlappingBookingsInOneBatchAreRejected() {
+        Room room = roomService.addRooms(List.of(new RoomImportRequest("Bulk Suite", BigDecimal.valueOf(300))))
+                .stream().map(result -> roomRepository.findById(result.id()).orElseThrow()).findFirst().orElseThrow();
+
+        List<BulkItemResult> first = bookingService.saveBookings(List.of(
+                booking(room.getId(), FIRST_NIGHT, FIRST_NIGHT.plusDays(3)),
+                booking(room.getId(), FIRST_NIGHT.plusDays(2), FIRST_NIGHT.plusDays(4)),
+                booking(room.getId(), FIRST_NIGHT.plusDays(3), FIRST_NIGHT.plusDays(5)),
+                booking(room.getId() + 1000, FIRST_NIGHT, FIRST_NIGHT.plusDays(1)),
+                booking(room.getId(), FIRST_NIGHT.plusDays(9), FIRST_NIGHT.plusDays(8))));
+        assertThat(first).extracting(BulkItemResult::created).containsExactly(true, false, true, false, false);
+        assertThat(first).extracting(BulkItemResult::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(bookingService.findByBookingConfirmationCode(first.get(0).confirmationCode()).getBookingId())
+                .isEqualTo(first.get(0).id());
+
+        // A second batch is checked against the stored bookings.
+        List<BulkItemResult> second = bookingService.saveBookings(List.of(
+                booking(room.getId(), FIRST_NIGHT.plusDays(4), FIRST_NIGHT.plusDays(6)),
+                booking(room.getId(), FIRST_NIGHT.plusDays(5), FIRST_NIGHT.plusDays(7))));
+        assertThat(second).extracting(BulkItemResult::created).containsExactly(false, true);
+        assertThat(bookingRepository.findByRoomId(room.getId())).hasSize(3);
+    }
+
+    private static BulkBookingRequest booking(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        BulkBookingRequest request = new BulkBookingRequest();
+        request.setRoomId(roomId);
+        request.setCheckInDate(checkIn);
+        request.setCheckOutDate(checkOut);
+        request.setGuestFullName("Group Guest");
+        request.setGuestEmail("group@example.com");
+        request.setNumOfAdults(2);
+        return request;
+    }
+}
@@ -0,0 +1,111 @@
+package learning.hotelbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Booking ids and confirmation codes from several threads and nodes never repeat, and every code
+ * decodes back to its id.
+ */
+class ConfirmationCodeGeneratorTest {
+    private static final byte[] SECRET = "test-confirmation-code-secret".getBytes(StandardCharsets.UTF_8);
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void idsAndCodesAreUniqueAcrossThreadsAndNodes() throws Exception {
+        // A frozen clock forces every id through the sequence overflow path.
+        long now = System.currentTimeMillis();
+        ConfirmationCodeGenerator nodeA = new ConfirmationCodeGenerator(1, SECRET, () -> now);
+        ConfirmationCodeGenerator nodeB = new ConfirmationCodeGenerator(2, SECRET, () -> now);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                ConfirmationCodeGenerator generator = t % 2 == 0 ? nodeA : nodeB;
+                Callable<long[]> task = () -> {
+                    start.await();
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<long[]> result : results) {
+                for (long id : result.get()) {
+                    assertThat(ids.add(id)).as("duplicate id %d", id).isTrue();
+                    assertThat(id).isBetween(0L, (1L << ConfirmationCodeGenerator.ID_BITS) - 1);
+                }
+            }
+            assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+
+            Set<String> codes = new HashSet<>();
+            for (long id : ids) {
+                String code = nodeA.encode(id);
+                assertThat(code).hasSize(ConfirmationCodeGenerator.CODE_LENGTH);
+                assertThat(codes.add(code)).as("duplicate code %s", code).isTrue();
+                assertThat(nodeB.decode(code)).contains(id);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void idsKeepIncreasingWhenTheClockGoesBack() {
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(0, SECRET, clock::get);
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            clock.addAndGet(i % 3 == 0 ? -50 : 20);
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void decodeRejectsMistypedCodesAndToleratesLookAlikes() {
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(0, SECRET, System::currentTimeMillis);
+        long id = generator.nextId();
+        String code = generator.encode(id);
+
+        assertThat(generator.decode(code.toLowerCase())).contains(id);
+        assertThat(generator.decode(code.substring(0, 4) + "-" + code.substring(4, 8) + "-" + code.substring(8)))
+                .contains(id);
+        assertThat(generator.decode(code.replace('0', 'O').replace('1', 'I'))).contains(id);
+
+        String alphabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+        for (int i = 0; i < code.length(); i++) {
+            for (char c : alphabet.toCharArray()) {
+                if (c != code.charAt(i)) {
+                    String typo = code.substring(0, i) + c + code.substring(i + 1);
+                    assertThat(generator.decode(typo)).as(typo).isEmpty();
+                }
+            }
+        }
+        assertThat(generator.decode("0123456789")).isEmpty();
+        assertThat(generator.decode(code + "0")).isEmpty();
+        assertThat(generator.decode("")).isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package learning.hotelbackend.service;
+
+import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.repository.BookingEventRepository;
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * "My bookings": matched by normalized email through the hash column, upcoming stays first, paged,
+ * and a cached page is dropped when the guest books again.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class GuestBookingLookupTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookingEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    void upcomingStaysComeFirstAndNewBookingsEvictTheCache() {
+        Room room = new Room();
+        room.setRoomType("Lookup Twin");
+        room.setRoomPrice(BigDecimal.valueOf(90));
+        Long roomId = roomRepository.save(room).getId();
+
+        book(roomId, "Ada@Example.com", TODAY.minusDays(30), TODAY.minusDays(28));
+        book(roomId, " ada@example.com", TODAY.plusDays(20), TODAY.plusDays(22));
+        book(roomId, "ada@example.com", TODAY.minusDays(10), TODAY.minusDays(8));
+        book(roomId, "ADA@example.com", TODAY.plusDays(5), TODAY.plusDays(7));
+        book(roomId, "someone.else@example.com", TODAY.plusDays(10), TODAY.plusDays(12));
+
+        List<BookingSummary> all = bookingService.getBookingsByUserEmail("ada@EXAMPLE.com", Pageable.unpaged());
+        assertThat(all).extracting(BookingSummary::getCheckInDate).containsExactly(
+                TODAY.plusDays(5), TODAY.plusDays(20), TODAY.minusDays(10), TODAY.minusDays(30));
+        assertThat(bookingService.getBookingsByUserEmail("ada@example.com", PageRequest.of(1, 3)))
+                .extracting(BookingSummary::getCheckInDate).containsExactly(TODAY.minusDays(30));
+
+        book(roomId, "ada@example.com", TODAY.plusDays(1), TODAY.plusDays(2));
+        assertThat(bookingService.getBookingsByUserEmail("ada@example.com", Pageable.unpaged()))
+                .extracting(BookingSummary::getCheckInDate).startsWith(TODAY.plusDays(1)).hasSize(5);
+    }
+
+    private void book(Long roomId, String email, LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setGuestFullName("Ada Lovelace");
+        booking.setGuestEmail(email);
+        booking.setNumOfAdults(1);
+        bookingService.saveBooking(roomId, booking);
+    }
+}
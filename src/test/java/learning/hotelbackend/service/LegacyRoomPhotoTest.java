@@ -0,0 +1,135 @@
+package learning.hotelbackend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import learning.hotelbackend.model.BookedRoom;
+import learning.hotelbackend.model.Room;
+import learning.hotelbackend.model.RoomPhoto;
+import learning.hotelbackend.repository.BookingEventRepository;
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import learning.hotelbackend.storage.LegacyPhotoMigrator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Photos still in the legacy room_photo table: room reads, bookings and admin updates never load
+ * them, photo requests read them without writing, and the migrator moves them into photo storage.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class LegacyRoomPhotoTest {
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private LegacyPhotoMigrator legacyPhotoMigrator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        bookingEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    void legacyPhotoIsOnlyLoadedWhenItIsServedOrMoved() throws IOException {
+        Long roomId = roomWithLegacyPhoto("Legacy Double");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(roomService.getRoomMetadata(roomId)).hasValueSatisfying(room -> {
+            assertThat(room.roomPrice()).isEqualByComparingTo("120");
+            assertThat(room.hasPhoto()).isTrue();
+        });
+        assertThat(roomService.getAllRooms()).singleElement().satisfies(room ->
+                assertThat(room.hasPhoto()).isTrue());
+        roomService.updateRoom(roomId, null, BigDecimal.valueOf(130), null);
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(LocalDate.of(2032, 5, 1));
+        booking.setCheckOutDate(LocalDate.of(2032, 5, 3));
+        booking.setGuestFullName("Grace Hopper");
+        booking.setGuestEmail("grace@example.com");
+        booking.setNumOfAdults(1);
+        bookingService.saveBooking(roomId, booking);
+        // Cached again, with the photo still in the legacy table.
+        assertThat(roomService.getRoomMetadata(roomId)).hasValueSatisfying(room ->
+                assertThat(room.photoHash()).isNull());
+        assertThat(photoLoads(statistics)).isZero();
+
+        // A photo request reads the legacy row and leaves it in place; moving it is the background job's work.
+        assertThat(roomService.getRoomWithPhotoMetadata(roomId).orElseThrow().getPhotoHash()).isNull();
+        assertThat(roomService.loadLegacyPhoto(roomId).orElseThrow().contentLength()).isPositive();
+        assertThat(photoLoads(statistics)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from room_photo", Integer.class)).isEqualTo(1);
+
+        Room migrated = legacyPhotoMigrator.migrate(roomId).orElseThrow();
+        assertThat(migrated.getPhotoHash()).isNotNull();
+        assertThat(roomService.getRoomMetadata(roomId)).hasValueSatisfying(room ->
+                assertThat(room.photoHash()).isEqualTo(migrated.getPhotoHash()));
+        assertThat(photoLoads(statistics)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from room_photo", Integer.class)).isZero();
+        assertThat(roomService.loadLegacyPhoto(roomId)).isEmpty();
+        assertThat(roomService.getRoomWithPhotoMetadata(roomId).orElseThrow().getLegacyPhoto()).isNull();
+    }
+
+    @Test
+    void deletingARoomDeletesItsLegacyPhoto() throws IOException {
+        Long roomId = roomWithLegacyPhoto("Legacy Single");
+
+        roomService.deleteRoom(roomId);
+
+        assertThat(roomRepository.existsById(roomId)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from room_photo", Integer.class)).isZero();
+    }
+
+    // As V9 leaves a room whose photo was still in the room row.
+    private Long roomWithLegacyPhoto(String roomType) throws IOException {
+        Room room = new Room();
+        room.setRoomType(roomType);
+        room.setRoomPrice(BigDecimal.valueOf(120));
+        Long roomId = roomRepository.save(room).getId();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", png);
+        jdbcTemplate.update("insert into room_photo (id, photo) values (?, ?)", roomId, png.toByteArray());
+        jdbcTemplate.update("update room set legacy_photo_id = id where id = ?", roomId);
+        return roomId;
+    }
+
+    private static long photoLoads(Statistics statistics) {
+        return statistics.getEntityStatistics(RoomPhoto.class.getName()).getLoadCount();
+    }
+}
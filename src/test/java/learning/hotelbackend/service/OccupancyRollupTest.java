@@ -0,0 +1,69 @@
+package learning.hotelbackend.service;
+
+import learning.hotelbackend.model.DailyOccupancy;
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.projection.BookingSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bookings saved or cancelled while a rebuild reads the booking table end up counted once or not at
+ * all, whether or not the read saw them.
+ */
+class OccupancyRollupTest {
+    private static final LocalDate NIGHT = LocalDate.of(2031, 5, 1);
+    private static final BigDecimal PRICE = BigDecimal.valueOf(100);
+
+    @Test
+    void changesDuringARebuildAreReplayedByTheirNetEffect() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        OccupancyRollup rollup = new OccupancyRollup(bookingRepository, mock(PlatformTransactionManager.class));
+
+        // The read sees bookings 1, 2 and 3. While it runs, 2 is cancelled, 3 is saved (and seen),
+        // and 4 is saved and cancelled again without the read seeing it.
+        doCallRealMethod().when(bookingRepository).forEachBookingSummary(any());
+        when(bookingRepository.findBookingSummariesAfter(anyLong(), any())).thenAnswer(invocation -> {
+            rollup.addBooking(3L, NIGHT, NIGHT.plusDays(1), "Double", PRICE, 2);
+            rollup.addBooking(4L, NIGHT, NIGHT.plusDays(1), "Double", PRICE, 2);
+            rollup.removeBooking(4L, NIGHT, NIGHT.plusDays(1), "Double", PRICE, 2);
+            rollup.removeBooking(2L, NIGHT, NIGHT.plusDays(1), "Double", PRICE, 2);
+            return List.of(summary(1L), summary(2L), summary(3L));
+        });
+
+        assertThat(rollup.rebuild()).isTrue();
+
+        assertThat(rollup.getDailyOccupancy(NIGHT, NIGHT, null)).containsExactly(
+                new DailyOccupancy(NIGHT, "Double", 2, 4, new BigDecimal("200.00")));
+    }
+
+    private static BookingSummary summary(Long id) {
+        return new Summary(id, NIGHT, NIGHT.plusDays(1), "Double", PRICE, 2);
+    }
+
+    private record Summary(Long id, LocalDate checkInDate, LocalDate checkOutDate, String roomType,
+                           BigDecimal roomPrice, int guests) implements BookingSummary {
+        public Long getId() { return id; }
+        public LocalDate getCheckInDate() { return checkInDate; }
+        public LocalDate getCheckOutDate() { return checkOutDate; }
+        public String getGuestFullName() { return null; }
+        public String getGuestEmail() { return null; }
+        public int getNumOfAdults() { return guests; }
+        public int getNumOfChildren() { return 0; }
+        public int getTotalNumOfGuests() { return guests; }
+        public String getBookingConfirmationCode() { return null; }
+        public Long getRoomId() { return null; }
+        public String getRoomType() { return roomType; }
+        public BigDecimal getRoomPrice() { return roomPrice; }
+    }
+}
@@ -0,0 +1,45 @@
+package learning.hotelbackend.service;
+
+import learning.hotelbackend.repository.BookingRepository;
+import learning.hotelbackend.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rooms and bookings changed while the index reads its startup snapshot end up as they were committed,
+ * whether or not the snapshot saw the change.
+ */
+class RoomAvailabilityIndexTest {
+    private static final LocalDate NIGHT = LocalDate.of(2031, 5, 1);
+
+    @Test
+    void changesDuringTheLoadAreReplayedOverTheSnapshot() {
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(roomRepository, bookingRepository);
+
+        // The snapshot sees rooms 1, 2 and 3 and bookings 10 (room 1) and 20 (room 2). While it is read,
+        // booking 10 is cancelled, room 3 is deleted, and booking 30 is made for room 2.
+        when(roomRepository.findAllRoomTypeIdsById()).thenReturn(List.of(
+                new Object[]{1L, 7}, new Object[]{2L, 7}, new Object[]{3L, 7}));
+        when(bookingRepository.findAllStays()).thenAnswer(invocation -> {
+            index.removeBooking(10L);
+            index.removeRoom(3L);
+            index.addBooking(2L, 30L, NIGHT.plusDays(5), NIGHT.plusDays(6));
+            return List.of(new Object[]{1L, 10L, NIGHT, NIGHT.plusDays(1)},
+                    new Object[]{2L, 20L, NIGHT, NIGHT.plusDays(1)});
+        });
+
+        index.load();
+
+        assertThat(index.isLoaded()).isTrue();
+        assertThat(index.findAvailableRoomIds(NIGHT, NIGHT.plusDays(1), 7)).containsExactly(1L);
+        assertThat(index.findAvailableRoomIds(NIGHT.plusDays(5), NIGHT.plusDays(6), 7)).containsExactly(1L);
+    }
+}
@@ -0,0 +1,82 @@
+package learning.hotelbackend.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Photos over the pixel limit are rejected from their header without being decoded, and a photo that
+ * cannot be rendered is not queued again.
+ */
+class PhotoVariantGeneratorTest {
+    // 100 x 100 = 10,000 pixels is allowed; 200 x 200 is not.
+    private static final long MAX_PIXELS = 10_000;
+
+    @TempDir
+    private Path storageDir;
+
+    private PhotoStorage photoStorage;
+    private PhotoVariantGenerator generator;
+
+    @AfterEach
+    void shutDown() {
+        if (generator != null) {
+            generator.shutdown();
+        }
+    }
+
+    @Test
+    void rendersPhotosWithinThePixelLimit() throws IOException {
+        createGenerator();
+        String hash = store(png(100, 100));
+
+        assertThat(generator.generate(hash)).isTrue();
+        assertThat(generator.hasAllVariants(hash)).isTrue();
+    }
+
+    @Test
+    void rejectsOversizedAndUndecodablePhotosOnce() throws Exception {
+        createGenerator();
+        String oversized = store(png(200, 200));
+        String notAnImage = store("not an image".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(generator.generate(oversized)).isFalse();
+        assertThat(generator.generate(notAnImage)).isFalse();
+
+        generator.generateAsync(oversized);
+        generator.generateAsync(notAnImage);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!(generator.hasFailed(oversized) && generator.hasFailed(notAnImage)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(generator.hasFailed(oversized)).isTrue();
+        assertThat(generator.hasFailed(notAnImage)).isTrue();
+        assertThat(generator.hasAllVariants(oversized)).isFalse();
+    }
+
+    private void createGenerator() throws IOException {
+        photoStorage = new FileSystemPhotoStorage(storageDir.toString());
+        generator = new PhotoVariantGenerator(photoStorage, 1, 10, MAX_PIXELS);
+    }
+
+    private String store(byte[] content) throws IOException {
+        return photoStorage.store(new ByteArrayInputStream(content)).hash();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", png);
+        return png.toByteArray();
+    }
+}